@@ -0,0 +1,326 @@
+package app;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+
+import fleet.FleetManager;
+import fleet.JourneyBatch;
+import vehicles.*;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import exceptions.*;
+
+//Non-interactive mode: runs a command script against a FleetManager, one command per line.
+//
+//  add car|truck|bus <id> <model> <maxSpeed> <mileage> <wheels>
+//  add airplane <id> <model> <maxSpeed> <mileage> <maxAltitude>
+//  add cargoship <id> <model> <maxSpeed> <mileage> <hasSail y/n>
+//  remove <id>                  move <id> <km>              journey <km>
+//  refuel <liters>              refuel <id> <liters>        fuel <km>
+//  maintain                     report                      due
+//  search <type>                sort speed|model|efficiency fastest
+//  models                       save <file>                 load <file>
+//  delta <file>                 merge <base> <delta>...     echo <text>
+//  range mileage|fuel|speed <min> <max|*>                   able <km> [type]
+//  exit
+//
+//Fields are separated by spaces or commas, blank lines and lines starting with # are skipped.
+//Consecutive move lines are sent as one runJourneys wave. A failing command prints its line
+//number and the error and the script goes on. Output goes to the given stream (the caller
+//buffers it), and a summary with per-command counts and timings is printed at the end.
+final class BatchRunner{
+
+    //per command name: how many ran, how many failed, time spent
+    private static final class Tally{
+        long count;
+        long failed;
+        long nanos;
+    }
+
+    private final FleetManager fm;
+    private final PrintStream out;
+    private final Map<String, Tally> tallies = new LinkedHashMap<>();
+    private long commands;
+    private long failures;
+
+    //pending move lines, flushed as one wave
+    private final List<String> moveIds = new ArrayList<>();
+    private final List<Double> moveKm = new ArrayList<>();
+    private final List<Integer> moveLines = new ArrayList<>();
+    private final JourneyBatch moveBatch = new JourneyBatch(0, true);
+
+    BatchRunner(FleetManager fm, PrintStream out){
+        this.fm = fm;
+        this.out = out;
+    }
+
+    // runs the whole script, returns the number of failed commands
+    long run(BufferedReader in) throws IOException{
+        long start = System.nanoTime();
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null){
+            lineNo++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] tok = trimmed.split("[\\s,]+");
+            String cmd = tok[0].toLowerCase(Locale.ROOT);
+            if (cmd.equals("move")){
+                queueMove(tok, lineNo);
+                continue;
+            }
+            flushMoves();
+            if (cmd.equals("exit") || cmd.equals("quit")) break;
+            execute(cmd, tok, lineNo);
+        }
+        flushMoves();
+        printSummary(System.nanoTime() - start);
+        return failures;
+    }
+
+    private void execute(String cmd, String[] tok, int lineNo){
+        long t0 = System.nanoTime();
+        boolean ok = true;
+        try{
+            switch (cmd){
+                case "add": add(tok); break;
+                case "remove": need(tok, 2); fm.removeVehicle(tok[1]); break;
+                case "journey": need(tok, 2); journey(number(tok[1])); break;
+                case "refuel": refuel(tok); break;
+                case "fuel": need(tok, 2); out.println("Fuel used: " + fm.consumeFuelForAll(number(tok[1]))); break;
+                case "maintain": fm.maintainAll(); break;
+                case "report": out.println(fm.generateReport()); break;
+                case "due": printIds(fm.getVehiclesNeedingMaintenance()); break;
+                case "search": need(tok, 2); printIds(fm.searchByType(typeOf(tok[1]))); break;
+                case "sort": need(tok, 2); printIds(sorted(tok[1])); break;
+                case "fastest": fastest(); break;
+                case "able": need(tok, 2); printIds(fm.getVehiclesAbleToTravel(number(tok[1]), tok.length > 2 ? typeOf(tok[2]) : null)); break;
+                case "range": need(tok, 4); printIds(range(tok[1], number(tok[2]), bound(tok[3]))); break;
+                case "models": for (String m : fm.getDistinctModels()) out.println(" - " + m); break;
+                case "save": need(tok, 2); save(tok[1]); break;
+                case "load": need(tok, 2); load(tok[1]); break;
+                case "delta": need(tok, 2); out.println("Delta records: " + fm.saveDelta(tok[1])); break;
+                case "merge": need(tok, 3); out.println("Merged vehicles: " + fm.mergeDeltas(tok[1], Arrays.copyOfRange(tok, 2, tok.length))); break;
+                case "echo": out.println(String.join(" ", Arrays.copyOfRange(tok, 1, tok.length))); break;
+                default: throw new InvalidOperationException("Unknown command: " + cmd);
+            }
+        }
+        catch (Exception e){
+            ok = false;
+            out.println("line " + lineNo + ": Error: " + e.getMessage());
+        }
+        tally(cmd, 1, ok ? 0 : 1, System.nanoTime() - t0);
+    }
+
+    private void add(String[] tok) throws InvalidOperationException{
+        need(tok, 7);
+        String id = tok[2];
+        String model = tok[3];
+        double maxSpeed = number(tok[4]);
+        double mileage = number(tok[5]);
+        Vehicle v;
+        switch (tok[1].toLowerCase(Locale.ROOT)){
+            case "car": v = new Car(id, model, maxSpeed, mileage, integer(tok[6])); break;
+            case "truck": v = new Truck(id, model, maxSpeed, mileage, integer(tok[6])); break;
+            case "bus": v = new Bus(id, model, maxSpeed, mileage, integer(tok[6])); break;
+            case "airplane": v = new Airplane(id, model, maxSpeed, mileage, number(tok[6])); break;
+            case "cargoship": v = new CargoShip(id, model, maxSpeed, mileage, yes(tok[6])); break;
+            default: throw new InvalidOperationException("Unknown vehicle type: " + tok[1]);
+        }
+        fm.addVehicle(v);
+    }
+
+    private void journey(double distance){
+        int failed = 0;
+        Map<String, String> res = fm.startAllJourneys(distance);
+        for (Map.Entry<String, String> e : res.entrySet()){
+            if (!e.getValue().equals("Ok")){
+                out.println(e.getKey() + " -> " + e.getValue());
+                failed++;
+            }
+        }
+        out.println("Journeys: " + (res.size() - failed) + " ok, " + failed + " failed");
+    }
+
+    private void refuel(String[] tok) throws InvalidOperationException{
+        if (tok.length >= 3){
+            Vehicle v = fm.getVehicleById(tok[1]);
+            if (v == null) throw new InvalidOperationException("Vehicle not found: " + tok[1]);
+            if (!(v instanceof FuelConsumable)) throw new InvalidOperationException(tok[1] + " does not use fuel");
+            ((FuelConsumable) v).refuel(number(tok[2]));
+            return;
+        }
+        need(tok, 2);
+        double amt = number(tok[1]);
+        int refueled = 0;
+        for (Vehicle v : fm.searchByType(FuelConsumable.class)){
+            try{
+                ((FuelConsumable) v).refuel(amt);
+                refueled++;
+            }
+            catch (InvalidOperationException e){
+                out.println(v.getID() + ": refuel failed " + e.getMessage());
+            }
+        }
+        out.println("Refueled: " + refueled);
+    }
+
+    private List<Vehicle> sorted(String by) throws InvalidOperationException{
+        switch (by.toLowerCase(Locale.ROOT)){
+            case "speed": return fm.getFleetSortedBySpeed();
+            case "model": return fm.getFleetSortedByModel();
+            case "efficiency": return fm.getFleetSortedByEfficiency();
+            default: throw new InvalidOperationException("Sort by speed, model or efficiency, not " + by);
+        }
+    }
+
+    private List<Vehicle> range(String by, double min, double max) throws InvalidOperationException{
+        if (min > max) throw new InvalidOperationException("Range minimum " + min + " is above maximum " + max);
+        switch (by.toLowerCase(Locale.ROOT)){
+            case "mileage": return fm.getVehiclesByMileage(min, max);
+            case "fuel": return fm.getVehiclesByFuelLevel(min, max);
+            case "speed": return fm.getVehiclesBySpeed(min, max);
+            default: throw new InvalidOperationException("Range over mileage, fuel or speed, not " + by);
+        }
+    }
+
+    private void fastest(){
+        Vehicle fastest = fm.getFastestVehicle();
+        Vehicle slowest = fm.getSlowestVehicle();
+        if (fastest == null){
+            out.println("No vehicles in fleet");
+            return;
+        }
+        out.println("Fastest: " + fastest.getID() + " " + fastest.getModel() + " " + fastest.getMaxSpeed() + " km/h");
+        out.println("Slowest: " + slowest.getID() + " " + slowest.getModel() + " " + slowest.getMaxSpeed() + " km/h");
+    }
+
+    private void save(String file) throws IOException{
+        if (Main.isSnapshotFile(file)) fm.saveSnapshot(file);
+        else fm.saveToFile(file);
+    }
+
+    private void load(String file) throws IOException{
+        if (Main.isSnapshotFile(file)) fm.loadSnapshot(file);
+        else fm.loadFromFile(file);
+    }
+
+    private void printIds(List<Vehicle> vehicles){
+        for (Vehicle v : vehicles) out.println(v.getID() + " " + v.getModel());
+        out.println("(" + vehicles.size() + " vehicles)");
+    }
+
+    private void queueMove(String[] tok, int lineNo){
+        double km;
+        try{
+            need(tok, 3);
+            km = number(tok[2]);
+        }
+        catch (InvalidOperationException e){
+            out.println("line " + lineNo + ": Error: " + e.getMessage());
+            tally("move", 1, 1, 0);
+            return;
+        }
+        moveIds.add(tok[1]);
+        moveKm.add(km);
+        moveLines.add(lineNo);
+    }
+
+    // one runJourneys wave for a run of consecutive move lines
+    private void flushMoves(){
+        int n = moveIds.size();
+        if (n == 0) return;
+        long t0 = System.nanoTime();
+        String[] ids = moveIds.toArray(new String[0]);
+        double[] km = new double[n];
+        for (int i = 0; i < n; i++) km[i] = moveKm.get(i);
+        JourneyBatch res = fm.runJourneys(ids, km, moveBatch);
+        int failed = 0;
+        for (int i = 0; i < n; i++){
+            if (res.getStatus(i) != JourneyBatch.OK){
+                out.println("line " + moveLines.get(i) + ": Error: " + ids[i] + " " + res.getDetail(i));
+                failed++;
+            }
+        }
+        moveIds.clear();
+        moveKm.clear();
+        moveLines.clear();
+        tally("move", n, failed, System.nanoTime() - t0);
+    }
+
+    private void tally(String cmd, long count, long failed, long nanos){
+        Tally t = tallies.computeIfAbsent(cmd, k -> new Tally());
+        t.count += count;
+        t.failed += failed;
+        t.nanos += nanos;
+        commands += count;
+        failures += failed;
+    }
+
+    private void printSummary(long nanos){
+        out.println();
+        out.println("Batch summary");
+        out.println("-------------");
+        out.printf("Commands: %d (%d failed) in %.3f s%n", commands, failures, nanos / 1e9);
+        for (Map.Entry<String, Tally> e : tallies.entrySet()){
+            Tally t = e.getValue();
+            out.printf("  %-10s %8d  failed %6d  %10.2f ms%n", e.getKey(), t.count, t.failed, t.nanos / 1e6);
+        }
+        out.printf("Fleet size: %d%n", fm.getFleetSnapshot().size());
+    }
+
+    private static void need(String[] tok, int n) throws InvalidOperationException{
+        if (tok.length < n){
+            throw new InvalidOperationException("Too few fields for " + tok[0] + ": expected " + (n - 1) + ", got " + (tok.length - 1));
+        }
+    }
+
+    private static double number(String s) throws InvalidOperationException{
+        try{
+            double v = Double.parseDouble(s);
+            if (!(v >= 0) || Double.isInfinite(v)) throw new InvalidOperationException("Not a valid amount: " + s);
+            return v;
+        }
+        catch (NumberFormatException e){
+            throw new InvalidOperationException("Invalid number: " + s);
+        }
+    }
+
+    // a range maximum: a number, or * for no upper limit
+    private static double bound(String s) throws InvalidOperationException{
+        if (s.equals("*")) return Double.POSITIVE_INFINITY;
+        return number(s);
+    }
+
+    private static int integer(String s) throws InvalidOperationException{
+        try{
+            return Integer.parseInt(s);
+        }
+        catch (NumberFormatException e){
+            throw new InvalidOperationException("Invalid integer: " + s);
+        }
+    }
+
+    private static boolean yes(String s) throws InvalidOperationException{
+        switch (s.toLowerCase(Locale.ROOT)){
+            case "y": case "yes": case "true": return true;
+            case "n": case "no": case "false": return false;
+            default: throw new InvalidOperationException("Expected y or n, got " + s);
+        }
+    }
+
+    private static Class<?> typeOf(String s) throws InvalidOperationException{
+        switch (s.toLowerCase(Locale.ROOT)){
+            case "car": return Car.class;
+            case "truck": return Truck.class;
+            case "bus": return Bus.class;
+            case "airplane": return Airplane.class;
+            case "cargoship": return CargoShip.class;
+            case "fuelconsumable": return FuelConsumable.class;
+            case "maintainable": return Maintainable.class;
+            default: throw new InvalidOperationException("Unknown type: " + s);
+        }
+    }
+}
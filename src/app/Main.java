@@ -1,11 +1,12 @@
 package app;
 
-import java.io.IOException;
+import java.io.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 import fleet.FleetManager;
+import server.FleetHttpServer;
 import vehicles.*;
 import interfaces.FuelConsumable;
 import interfaces.Maintainable;
@@ -15,6 +16,17 @@ public class Main{
     public static void main(String[] args){
         FleetManager fleet_m=new FleetManager();
 
+        // --batch <script|->: run a command script (see BatchRunner) instead of the menu
+        if (args.length > 0 && args[0].equals("--batch")){
+            String script = args.length > 1 ? args[1] : "-";
+            System.exit(run_batch(script, fleet_m) == 0 ? 0 : 1);
+        }
+        // --serve <port> [fleet file]: answer JSON queries on localhost (see FleetHttpServer) until killed
+        if (args.length > 0 && args[0].equals("--serve")){
+            run_server(args, fleet_m);
+            return;
+        }
+
         try (Scanner sc = new Scanner(System.in)){
             run_cli_loop(sc, fleet_m);
         }
@@ -51,6 +63,44 @@ public class Main{
         }
     }
 
+    // output (including the vehicles' event lines) goes through one big buffer and is written out
+    // in blocks instead of flushing every line; returns the number of failed commands
+    private static long run_batch(String script, FleetManager fm){
+        PrintStream console = System.out;
+        PrintStream buffered = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+        System.setOut(buffered);
+        try (BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : new BufferedReader(new FileReader(script))){
+            return new BatchRunner(fm, buffered).run(in);
+        }
+        catch (IOException e){
+            buffered.println("Batch failed: " + e.getMessage());
+            return 1;
+        }
+        finally{
+            buffered.flush();
+            System.setOut(console);
+        }
+    }
+
+    private static void run_server(String[] args, FleetManager fm){
+        try{
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            if (args.length > 2){
+                if (isSnapshotFile(args[2])) fm.loadSnapshot(args[2]);
+                else fm.loadFromFile(args[2]);
+            }
+            FleetHttpServer server = new FleetHttpServer(fm, port);
+            server.start();
+            System.out.println("Serving fleet on http://localhost:" + server.getPort()
+                    + (server.usesVirtualThreads() ? " (virtual threads)" : ""));
+        }
+        catch (IOException | NumberFormatException e){
+            System.out.println("Server failed: " + e.getMessage());
+        }
+    }
+
     private static void printMenu() {
         System.out.println("   Fleet Manager Menu   ");
         System.out.println("1. Add Vehicle");
@@ -226,9 +276,10 @@ public class Main{
     }
 
     private static void handle_save_fleet(Scanner sc, FleetManager fm){
-        String file_name = readNonEmptyString(sc, "Enter filename to save (e.g., fleet.csv): ");
+        String file_name = readNonEmptyString(sc, "Enter filename to save (e.g., fleet.csv, or fleet.bin for a binary snapshot): ");
         try{
-            fm.saveToFile(file_name);
+            if (isSnapshotFile(file_name)) fm.saveSnapshot(file_name);
+            else fm.saveToFile(file_name);
             System.out.println("Fleet saved to " + file_name);
         }
         catch (IOException e) {
@@ -244,7 +295,8 @@ public class Main{
             return;
         }
         try{
-            fm.loadFromFile(file_name);
+            if (isSnapshotFile(file_name)) fm.loadSnapshot(file_name);
+            else fm.loadFromFile(file_name);
             System.out.println("Fleet loaded from " + file_name);
         } 
         catch (IOException e){
@@ -252,6 +304,10 @@ public class Main{
         }
     }
 
+    static boolean isSnapshotFile(String file_name){
+        return file_name.toLowerCase().endsWith(".bin");
+    }
+
     private static void handleSearchByType(Scanner sc, FleetManager fm){
         System.out.println("Search type: 1=Car 2=Truck 3=Bus 4=Airplane 5=CargoShip 6=FuelConsumable 7=Maintainable");
         int opt = readInt(sc, "Choose: ", 1, 7);
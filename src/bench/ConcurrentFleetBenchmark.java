@@ -0,0 +1,129 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import fleet.ConcurrentFleetManager;
+import fleet.FleetManager;
+import vehicles.Vehicle;
+
+//Throughput under contention: reader threads poll the report and the fleet snapshot while writer
+//threads add and remove vehicles. Compares ConcurrentFleetManager with a FleetManager behind one lock.
+//
+//  java -cp bin bench.ConcurrentFleetBenchmark [fleetSize] [seconds] [readers,writers ...]
+public final class ConcurrentFleetBenchmark{
+
+    private interface Fleet{
+        void add(Vehicle v) throws Exception;
+        void remove(String id) throws Exception;
+        Object read();
+    }
+
+    public static void main(String[] args) throws Exception{
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        String[] mixes = args.length > 2 ? java.util.Arrays.copyOfRange(args, 2, args.length)
+                : new String[]{"1,1", "4,1", "8,2", "16,4"};
+
+        // FleetManager notes duplicate models on System.out
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try{
+            console.printf("%-12s %8s %8s %16s %16s%n", "fleet", "readers", "writers", "reads/s", "writes/s");
+            for (String mix : mixes){
+                String[] rw = mix.split(",");
+                int readers = Integer.parseInt(rw[0].trim());
+                int writers = Integer.parseInt(rw[1].trim());
+                run(console, "locked", lockedFleet(), size, seconds, readers, writers);
+                try (ConcurrentFleetManager cfm = new ConcurrentFleetManager()){
+                    run(console, "concurrent", concurrentFleet(cfm), size, seconds, readers, writers);
+                }
+            }
+        }
+        finally{
+            System.setOut(console);
+        }
+    }
+
+    private static Fleet lockedFleet(){
+        FleetManager fm = new FleetManager();
+        return new Fleet(){
+            public synchronized void add(Vehicle v) throws Exception{ fm.addVehicle(v); }
+            public synchronized void remove(String id) throws Exception{ fm.removeVehicle(id); }
+            public synchronized Object read(){ return fm.generateReport() + fm.getFleetSnapshot().size(); }
+        };
+    }
+
+    private static Fleet concurrentFleet(ConcurrentFleetManager cfm){
+        return new Fleet(){
+            public void add(Vehicle v) throws Exception{ cfm.addVehicle(v); }
+            public void remove(String id) throws Exception{ cfm.removeVehicle(id); }
+            public Object read(){ return cfm.generateReport() + cfm.getFleetSnapshot().size(); }
+        };
+    }
+
+    private static void run(PrintStream console, String name, Fleet fleet, int size, int seconds,
+                            int readers, int writers) throws Exception{
+        // base fleet the readers scan, plus a private pool of vehicles per writer to churn through
+        for (Vehicle v : SyntheticFleet.generate(size, 1)) fleet.add(v);
+
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(readers + writers);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds) + TimeUnit.MILLISECONDS.toNanos(100);
+        Object[] sink = new Object[1];
+
+        for (int r = 0; r < readers; r++){
+            pool.execute(() -> {
+                await(start);
+                while (System.nanoTime() < deadline){
+                    sink[0] = fleet.read();
+                    reads.increment();
+                }
+            });
+        }
+        for (int w = 0; w < writers; w++){
+            List<Vehicle> own = renamed(SyntheticFleet.generate(1_000, 100 + w), "W" + w + "-");
+            pool.execute(() -> {
+                await(start);
+                try{
+                    while (System.nanoTime() < deadline){
+                        for (Vehicle v : own){ fleet.add(v); writes.increment(); }
+                        for (Vehicle v : own){ fleet.remove(v.getID()); writes.increment(); }
+                    }
+                }
+                catch (Exception e){
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        double elapsed = (System.nanoTime() - t0) / 1e9;
+        console.printf("%-12s %8d %8d %16.0f %16.0f%n", name, readers, writers,
+                reads.sum() / elapsed, writes.sum() / elapsed);
+    }
+
+    private static List<Vehicle> renamed(List<Vehicle> vehicles, String prefix) throws Exception{
+        List<Vehicle> out = new java.util.ArrayList<>(vehicles.size());
+        for (Vehicle v : vehicles){
+            out.add(new vehicles.Car(prefix + v.getID(), v.getModel(), v.getMaxSpeed(), v.getCurrentMileage(), 4));
+        }
+        return out;
+    }
+
+    private static void await(CountDownLatch latch){
+        try{
+            latch.await();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+}
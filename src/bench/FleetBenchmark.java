@@ -0,0 +1,286 @@
+package bench;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+
+import fleet.FleetManager;
+import fleet.JourneyBatch;
+import vehicles.*;
+import interfaces.FuelConsumable;
+import events.*;
+
+//Benchmark harness for the FleetManager hot paths, JDK only (no JMH on the classpath of this project).
+//
+//  java -cp bin bench.FleetBenchmark [--sizes 1000,10000,100000] [--warmup 3] [--iterations 5]
+//                                    [--only sort] [--out results.csv] [--baseline previous.csv]
+//                                    [--events console|silent|async]
+//
+//Each case runs warmup + measured iterations per fleet size; setup is not timed. Reported per call:
+//mean and min wall time, and bytes allocated by the calling thread (work done on pool threads by
+//parallel mode is not counted). --out writes the results as CSV, --baseline diffs against such a file.
+//--events picks the event sink the vehicles report to (console by default, printing into a discarded stream).
+public final class FleetBenchmark{
+
+    private static final long SEED = 42;
+
+    // consumed results, keeps the JIT from dropping the measured calls
+    static volatile Object sink;
+
+    private interface Setup{
+        FleetManager prepare(int size) throws Exception;
+    }
+
+    private interface Op{
+        Object run(FleetManager fm) throws Exception;
+    }
+
+    private static final class Case{
+        final String name;
+        final Setup setup;
+        final Op op;
+
+        Case(String name, Setup setup, Op op){
+            this.name = name;
+            this.setup = setup;
+            this.op = op;
+        }
+    }
+
+    private static final class Result{
+        final String name;
+        final int size;
+        final double meanNs;
+        final long minNs;
+        final long allocBytes;
+
+        Result(String name, int size, double meanNs, long minNs, long allocBytes){
+            this.name = name;
+            this.size = size;
+            this.meanNs = meanNs;
+            this.minNs = minNs;
+            this.allocBytes = allocBytes;
+        }
+    }
+
+    private static List<Vehicle> vehicles;
+    private static FleetManager shared;
+    //the manager the vehicles are currently registered with, a vehicle belongs to one fleet at a time
+    private static FleetManager owner;
+    private static String[] ids;
+    private static double[] distances;
+    private static final fleet.JourneyBatch batch = new JourneyBatch();
+    private static Path csvFile;
+    private static Path snapshotFile;
+
+    public static void main(String[] args) throws Exception{
+        int[] sizes = {1_000, 10_000, 100_000};
+        int warmup = 3;
+        int iterations = 5;
+        String only = null;
+        String out = null;
+        String baseline = null;
+        String events = "console";
+        for (int i = 0; i < args.length; i++){
+            switch (args[i]){
+                case "--sizes": sizes = Arrays.stream(args[++i].split(",")).mapToInt(s -> Integer.parseInt(s.trim().replace("_", ""))).toArray(); break;
+                case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--only": only = args[++i]; break;
+                case "--out": out = args[++i]; break;
+                case "--baseline": baseline = args[++i]; break;
+                case "--events": events = args[++i].toLowerCase(); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        AsyncEventSink async = null;
+        switch (events){
+            case "console": Events.setSink(ConsoleEventSink.INSTANCE); break;
+            case "silent": Events.setSink(SilentEventSink.INSTANCE); break;
+            case "async": Events.setSink(async = new AsyncEventSink(1 << 16, false, new PrintStream(OutputStream.nullOutputStream()))); break;
+            default: throw new IllegalArgumentException("Unknown event sink: " + events);
+        }
+
+        csvFile = Files.createTempFile("fleet-bench", ".csv");
+        snapshotFile = Files.createTempFile("fleet-bench", ".bin");
+        PrintStream console = System.out;
+        List<Result> results = new ArrayList<>();
+        try{
+            for (int size : sizes){
+                vehicles = SyntheticFleet.generate(size, SEED);
+                ids = new String[size];
+                distances = new double[size];
+                for (int i = 0; i < size; i++){
+                    ids[i] = vehicles.get(i).getID();
+                    distances[i] = 1.0 + i % 10;
+                }
+                owner = null;
+                shared = null;
+                for (Case c : cases()){
+                    if (only != null && !c.name.toLowerCase().contains(only.toLowerCase())) continue;
+                    // vehicle and manager chatter on System.out would dominate the timings
+                    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                    Result r;
+                    try{
+                        r = measure(c, size, warmup, iterations);
+                    }
+                    finally{
+                        System.setOut(console);
+                    }
+                    results.add(r);
+                    console.printf("%-28s %10d %14.0f ns %14d ns %14d B%n", r.name, r.size, r.meanNs, r.minNs, r.allocBytes);
+                }
+            }
+        }
+        finally{
+            if (async != null) async.close();
+            Files.deleteIfExists(csvFile);
+            Files.deleteIfExists(snapshotFile);
+        }
+
+        if (out != null) writeCsv(Paths.get(out), results);
+        if (baseline != null) diff(Paths.get(baseline), results);
+    }
+
+    private static List<Case> cases(){
+        List<Case> list = new ArrayList<>();
+        list.add(new Case("addVehicle", size -> {
+            release();
+            return new FleetManager();
+        }, fm -> {
+            for (Vehicle v : vehicles) fm.addVehicle(v);
+            owner = fm;
+            return fm;
+        }));
+        list.add(new Case("removeVehicle", FleetBenchmark::freshFleet, fm -> {
+            for (Vehicle v : vehicles) fm.removeVehicle(v.getID());
+            return fm;
+        }));
+        list.add(new Case("startAllJourneys", FleetBenchmark::refueledFleet, fm -> fm.startAllJourneys(5.0)));
+        list.add(new Case("runJourneys", FleetBenchmark::refueledFleet, fm -> fm.runJourneys(ids, distances, batch)));
+        list.add(new Case("runJourneys(handles)", FleetBenchmark::refueledFleet, fm -> fm.runJourneys(fm.getHandles(), distances, batch)));
+        list.add(new Case("consumeFuelForAll", FleetBenchmark::refueledFleet, fm -> fm.consumeFuelForAll(5.0)));
+        list.add(new Case("generateReport", FleetBenchmark::sharedFleet, FleetManager::generateReport));
+        list.add(new Case("getFleetSortedBySpeed", FleetBenchmark::sharedFleet, FleetManager::getFleetSortedBySpeed));
+        list.add(new Case("getFleetSortedByModel", FleetBenchmark::sharedFleet, FleetManager::getFleetSortedByModel));
+        list.add(new Case("getFleetSortedByEfficiency", FleetBenchmark::sharedFleet, FleetManager::getFleetSortedByEfficiency));
+        list.add(new Case("searchByType(Car)", FleetBenchmark::sharedFleet, fm -> fm.searchByType(Car.class)));
+        list.add(new Case("searchByType(FuelConsumable)", FleetBenchmark::sharedFleet, fm -> fm.searchByType(FuelConsumable.class)));
+        list.add(new Case("saveToFile", FleetBenchmark::sharedFleet, fm -> {
+            fm.saveToFile(csvFile.toString());
+            return fm;
+        }));
+        list.add(new Case("loadFromFile", size -> {
+            sharedFleet(size).saveToFile(csvFile.toString());
+            return new FleetManager();
+        }, fm -> {
+            fm.loadFromFile(csvFile.toString());
+            return fm;
+        }));
+        list.add(new Case("saveSnapshot", FleetBenchmark::sharedFleet, fm -> {
+            fm.saveSnapshot(snapshotFile.toString());
+            return fm;
+        }));
+        list.add(new Case("loadSnapshot", size -> {
+            sharedFleet(size).saveSnapshot(snapshotFile.toString());
+            return new FleetManager();
+        }, fm -> {
+            fm.loadSnapshot(snapshotFile.toString());
+            return fm;
+        }));
+        return list;
+    }
+
+    // the vehicles have to leave their current manager before they can join a new one, which
+    // invalidates the shared manager
+    private static FleetManager freshFleet(int size) throws Exception{
+        release();
+        FleetManager fm = new FleetManager();
+        for (Vehicle v : vehicles) fm.addVehicle(v);
+        owner = fm;
+        return fm;
+    }
+
+    private static void release() throws Exception{
+        if (owner != null){
+            for (Vehicle v : owner.getFleetSnapshot()) owner.removeVehicle(v.getID());
+        }
+        owner = null;
+        shared = null;
+    }
+
+    // read-only cases share one manager per size
+    private static FleetManager sharedFleet(int size) throws Exception{
+        if (shared == null){
+            FleetManager fm = freshFleet(size);
+            shared = fm;
+        }
+        return shared;
+    }
+
+    // journeys and fuel consumption drain the tanks, top them up outside the timed section
+    private static FleetManager refueledFleet(int size) throws Exception{
+        FleetManager fm = sharedFleet(size);
+        for (Vehicle v : vehicles){
+            if (v instanceof CargoShip && ((CargoShip) v).hasSail()) continue;
+            ((FuelConsumable) v).refuel(10);
+        }
+        return fm;
+    }
+
+    private static Result measure(Case c, int size, int warmup, int iterations) throws Exception{
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long total = 0, min = Long.MAX_VALUE, alloc = 0;
+        for (int i = 0; i < warmup + iterations; i++){
+            FleetManager fm = c.setup.prepare(size);
+            long a0 = threads.getThreadAllocatedBytes(thread);
+            long t0 = System.nanoTime();
+            sink = c.op.run(fm);
+            long t = System.nanoTime() - t0;
+            long a = threads.getThreadAllocatedBytes(thread) - a0;
+            if (i >= warmup){
+                total += t;
+                min = Math.min(min, t);
+                alloc += a;
+            }
+        }
+        return new Result(c.name, size, (double) total / iterations, min, alloc / iterations);
+    }
+
+    private static void writeCsv(Path file, List<Result> results) throws IOException{
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(file))){
+            w.println("benchmark,size,mean_ns,min_ns,alloc_bytes");
+            for (Result r : results){
+                w.printf(Locale.ROOT, "%s,%d,%.0f,%d,%d%n", r.name, r.size, r.meanNs, r.minNs, r.allocBytes);
+            }
+        }
+        System.out.println("Results written to " + file);
+    }
+
+    private static void diff(Path file, List<Result> results) throws IOException{
+        Map<String, double[]> base = new HashMap<>();
+        for (String line : Files.readAllLines(file)){
+            String[] t = line.split(",");
+            if (t.length < 5 || t[0].equals("benchmark")) continue;
+            base.put(t[0] + "@" + t[1], new double[]{Double.parseDouble(t[2]), Double.parseDouble(t[4])});
+        }
+        System.out.println();
+        System.out.println("Compared with " + file + " (negative = faster / less allocation):");
+        for (Result r : results){
+            double[] b = base.get(r.name + "@" + r.size);
+            if (b == null){
+                System.out.printf("%-28s %10d   (not in baseline)%n", r.name, r.size);
+                continue;
+            }
+            System.out.printf("%-28s %10d %+9.1f%% time %+9.1f%% alloc%n", r.name, r.size,
+                    percent(b[0], r.meanNs), percent(b[1], r.allocBytes));
+        }
+    }
+
+    private static double percent(double before, double after){
+        return before == 0 ? 0 : (after - before) * 100.0 / before;
+    }
+}
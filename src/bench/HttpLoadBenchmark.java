@@ -0,0 +1,160 @@
+package bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import events.Events;
+import events.SilentEventSink;
+import fleet.FleetManager;
+import server.FleetHttpServer;
+import vehicles.Vehicle;
+
+//Load test for server.FleetHttpServer: starts it in-process over a synthetic fleet and keeps
+//a fixed number of requests in flight for a while, each client slot sending its next request as
+//soon as the previous one answers. The mix is mostly lookups by ID, plus sorted pages, reports
+//and small journey waves, which take the write lock.
+//
+//  java -cp bin bench.HttpLoadBenchmark [fleetSize=10000] [concurrency=2000] [seconds=10]
+public final class HttpLoadBenchmark{
+
+    private static final String[] KINDS = {"lookup", "sorted page", "report", "journeys"};
+
+    public static void main(String[] args) throws Exception{
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Events.setSink(SilentEventSink.INSTANCE);
+        FleetManager fm = new FleetManager();
+        List<Vehicle> vehicles = SyntheticFleet.generate(size, 42);
+        for (Vehicle v : vehicles) fm.addVehicle(v);
+
+        try (FleetHttpServer server = new FleetHttpServer(fm, 0)){
+            server.start();
+            String base = "http://127.0.0.1:" + server.getPort();
+            System.out.printf("Fleet %d vehicles, %d concurrent requests for %d s, %s%n", size, concurrency, seconds,
+                    server.usesVirtualThreads() ? "virtual threads" : "platform thread pool (no virtual threads on this JDK)");
+
+            ExecutorService clientPool = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(clientPool)
+                    .build();
+
+            Load load = new Load(client, base, vehicles, System.nanoTime() + seconds * 1_000_000_000L, concurrency);
+            long start = System.nanoTime();
+            for (int i = 0; i < concurrency; i++) load.next(new SplittableRandom(i));
+            load.done.await();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            clientPool.shutdownNow();
+            load.print(elapsed);
+        }
+    }
+
+    private static final class Load{
+        final HttpClient client;
+        final String base;
+        final List<Vehicle> vehicles;
+        final long deadline;
+        final LongAdder[] counts = new LongAdder[KINDS.length];
+        final LongAdder errors = new LongAdder();
+        //one latency buffer per client slot, handed over when the slot finishes
+        final ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        final CountDownLatch done;
+
+        Load(HttpClient client, String base, List<Vehicle> vehicles, long deadline, int slots){
+            this.client = client;
+            this.base = base;
+            this.vehicles = vehicles;
+            this.deadline = deadline;
+            this.done = new CountDownLatch(slots);
+            for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+        }
+
+        void next(SplittableRandom rnd){
+            next(rnd, new long[1 << 12], 0);
+        }
+
+        // one client slot: sends a request, records its latency and sends the next one until the deadline
+        private void next(SplittableRandom rnd, long[] lat, int n){
+            if (System.nanoTime() >= deadline){
+                latencies.add(Arrays.copyOf(lat, n));
+                done.countDown();
+                return;
+            }
+            int kind = pick(rnd);
+            HttpRequest request = request(kind, rnd);
+            long t0 = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((resp, err) -> {
+                long took = System.nanoTime() - t0;
+                if (err != null || resp.statusCode() >= 500) errors.increment();
+                else counts[kind].increment();
+                long[] buf = lat;
+                int count = n;
+                if (count == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                buf[count++] = took;
+                next(rnd, buf, count);
+            });
+        }
+
+        private static int pick(SplittableRandom rnd){
+            int p = rnd.nextInt(100);
+            if (p < 85) return 0;
+            if (p < 95) return 1;
+            if (p < 99) return 2;
+            return 3;
+        }
+
+        private HttpRequest request(int kind, SplittableRandom rnd){
+            switch (kind){
+                case 0:
+                    return get("/vehicles/" + vehicles.get(rnd.nextInt(vehicles.size())).getID());
+                case 1:
+                    return get("/vehicles/sorted?by=" + (rnd.nextBoolean() ? "speed" : "efficiency")
+                            + "&offset=" + rnd.nextInt(100) + "&limit=20");
+                case 2:
+                    return get("/report");
+                default:{
+                    StringBuilder body = new StringBuilder();
+                    for (int i = 0; i < 10; i++){
+                        body.append(vehicles.get(rnd.nextInt(vehicles.size())).getID()).append(',').append(1 + rnd.nextInt(20)).append('\n');
+                    }
+                    return HttpRequest.newBuilder(URI.create(base + "/journeys"))
+                            .timeout(Duration.ofSeconds(60))
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+                }
+            }
+        }
+
+        private HttpRequest get(String path){
+            return HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(60)).GET().build();
+        }
+
+        void print(double elapsed){
+            long total = 0;
+            for (LongAdder c : counts) total += c.sum();
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("Requests: %d ok, %d errors in %.2f s = %.0f req/s%n", total, errors.sum(), elapsed, total / elapsed);
+            for (int i = 0; i < KINDS.length; i++){
+                System.out.printf("  %-12s %10d%n", KINDS[i], counts[i].sum());
+            }
+            if (all.length > 0){
+                System.out.printf("Latency ms: p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n",
+                        pct(all, 0.50), pct(all, 0.90), pct(all, 0.99), all[all.length - 1] / 1e6);
+            }
+        }
+
+        private static double pct(long[] sorted, double p){
+            return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package bench;
+
+import events.Events;
+import events.SilentEventSink;
+import sim.FleetSimulation;
+import sim.SimulationReport;
+
+//Runs the journey simulation over a synthetic fleet and prints the report.
+//
+//  java -cp bin bench.SimulationBenchmark [vehicles=100000] [days=365] [seed=42] [parallel]
+//
+//Results depend only on the fleet size and the seed; "parallel" runs the shards on all cores.
+public final class SimulationBenchmark{
+
+    public static void main(String[] args){
+        int size = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 100_000;
+        double days = args.length > 1 ? Double.parseDouble(args[1]) : 365;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        boolean parallel = args.length > 3 && args[3].equals("parallel");
+
+        // one console line per journey would take longer than the simulation itself
+        Events.setSink(SilentEventSink.INSTANCE);
+        FleetSimulation sim = new FleetSimulation(SyntheticFleet.generate(size, seed), seed);
+        sim.setParallel(parallel);
+        SimulationReport report = sim.run(days);
+        System.out.print(report);
+    }
+}
@@ -0,0 +1,60 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import vehicles.*;
+import interfaces.*;
+import exceptions.*;
+
+//Deterministic synthetic fleets for the benchmarks: same seed and size give the same vehicles.
+public final class SyntheticFleet{
+
+    private static final String[] MODELS = {
+        "volvo", "scania", "man", "tata", "bmw", "toyota", "honda", "ford",
+        "boeing", "airbus", "embraer", "maersk", "evergreen", "cosco", "daf", "iveco"
+    };
+
+    private SyntheticFleet(){}
+
+    public static List<Vehicle> generate(int size, long seed){
+        Random rnd = new Random(seed);
+        List<Vehicle> out = new ArrayList<>(size);
+        try{
+            for (int i = 0; i < size; i++){
+                out.add(vehicle(i, rnd));
+            }
+        }
+        catch (InvalidOperationException | OverloadException e){
+            throw new IllegalStateException("Synthetic fleet generation failed: " + e.getMessage(), e);
+        }
+        return out;
+    }
+
+    private static Vehicle vehicle(int i, Random rnd) throws InvalidOperationException, OverloadException{
+        String id = "V" + i;
+        String model = MODELS[rnd.nextInt(MODELS.length)];
+        double mileage = rnd.nextInt(12000);
+        Vehicle v;
+        switch (i % 5){
+            case 0: v = new Car(id, model, 120 + rnd.nextInt(120), mileage, 4); break;
+            case 1: v = new Truck(id, model, 80 + rnd.nextInt(60), mileage, 6 + 2 * rnd.nextInt(4)); break;
+            case 2: v = new Bus(id, model, 70 + rnd.nextInt(50), mileage, 6); break;
+            case 3: v = new Airplane(id, model, 700 + rnd.nextInt(250), mileage, 9000 + rnd.nextInt(3000)); break;
+            default: v = new CargoShip(id, model, 30 + rnd.nextInt(20), mileage, rnd.nextInt(4) == 0);
+        }
+        if (!(v instanceof CargoShip && ((CargoShip) v).hasSail())){
+            ((FuelConsumable) v).refuel(50 + rnd.nextInt(500));
+        }
+        if (v instanceof CargoCarrier){
+            CargoCarrier c = (CargoCarrier) v;
+            c.loadCargo(1 + rnd.nextInt((int) Math.min(c.getCargoCapacity(), 5000)));
+        }
+        if (v instanceof PassengerCarrier){
+            PassengerCarrier p = (PassengerCarrier) v;
+            p.boardPassengers(1 + rnd.nextInt(p.getPassengerCapacity()));
+        }
+        return v;
+    }
+}
@@ -0,0 +1,221 @@
+package events;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import vehicles.Vehicle;
+
+//Queues events in a bounded ring buffer and prints them in batches from a background thread,
+//so callers never wait on console I/O. Lines come out in the order the events were queued.
+//
+//The ring is a multi-producer / single-consumer array queue: producers claim a slot with one
+//compare-and-set on the tail, fill it, and publish it through the slot's sequence number.
+//Slots are preallocated; only the printed text is built, on the writer thread.
+//
+//When the ring is full a producer either waits for the writer (default) or drops the event
+//and counts it (dropWhenFull). A waiting producer spins briefly, since the writer usually frees a
+//whole batch of slots at once, then parks between retries so a slow console does not burn a core
+//per blocked thread. flush() waits until everything queued so far is printed.
+public final class AsyncEventSink implements EventSink, AutoCloseable{
+
+    private static final byte JOURNEY = 0;
+    private static final byte MAINTENANCE = 1;
+    private static final byte DUPLICATE_MODEL = 2;
+    private static final byte VEHICLE_SKIPPED = 3;
+    private static final byte RECORD_SKIPPED = 4;
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = 200_000;
+    //a producer waiting for a full ring spins this many times, then parks FULL_PARK_NANOS per retry
+    private static final int FULL_SPINS = 128;
+    private static final long FULL_PARK_NANOS = 50_000;
+
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final byte[] kind;
+    private final Vehicle[] vehicle;
+    private final double[] distance;
+    private final String[] text;
+    private final String[] reason;
+
+    private final AtomicLong tail = new AtomicLong();
+    //next slot the writer reads; everything before it has been printed
+    private volatile long head;
+
+    private final boolean dropWhenFull;
+    private final LongAdder dropped = new LongAdder();
+    private final PrintStream out;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public AsyncEventSink(){
+        this(DEFAULT_CAPACITY, false, null);
+    }
+
+    // out == null prints to whatever System.out is at the time of writing
+    public AsyncEventSink(int capacity, boolean dropWhenFull, PrintStream out){
+        if (capacity < 2){
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+        this.kind = new byte[size];
+        this.vehicle = new Vehicle[size];
+        this.distance = new double[size];
+        this.text = new String[size];
+        this.reason = new String[size];
+        this.dropWhenFull = dropWhenFull;
+        this.out = out;
+        this.writer = new Thread(this::drainLoop, "fleet-event-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void journeyCompleted(Vehicle v, double d){
+        offer(JOURNEY, v, d, null, null);
+    }
+
+    @Override
+    public void maintenanceDone(Vehicle v, String note){
+        offer(MAINTENANCE, v, 0, note, null);
+    }
+
+    @Override
+    public void duplicateModel(String model){
+        offer(DUPLICATE_MODEL, null, 0, model, null);
+    }
+
+    @Override
+    public void vehicleSkipped(String id, String why){
+        offer(VEHICLE_SKIPPED, null, 0, id, why);
+    }
+
+    @Override
+    public void recordSkipped(String message){
+        offer(RECORD_SKIPPED, null, 0, message, null);
+    }
+
+    public long dropped(){
+        return dropped.sum();
+    }
+
+    // waits until every event queued before this call has been printed
+    public void flush(){
+        long target = tail.get();
+        while (head < target){
+            if (!writer.isAlive()){
+                throw new IllegalStateException("Event writer has stopped");
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    // prints what is queued and stops the writer; events after close are dropped
+    @Override
+    public void close(){
+        if (closed) return;
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+        try{
+            writer.join();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offer(byte k, Vehicle v, double d, String t, String r){
+        if (closed){
+            dropped.increment();
+            return;
+        }
+        long pos;
+        int slot;
+        int spins = 0;
+        while (true){
+            pos = tail.get();
+            slot = (int) (pos & mask);
+            long gap = sequence.get(slot) - pos;
+            if (gap == 0){
+                if (tail.compareAndSet(pos, pos + 1)) break;
+            }
+            else if (gap < 0){
+                // ring full: the writer has not printed this slot's previous event yet
+                if (dropWhenFull){
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                if (spins < FULL_SPINS){
+                    spins++;
+                    Thread.onSpinWait();
+                }
+                else if (writer.isAlive()){
+                    LockSupport.parkNanos(this, FULL_PARK_NANOS);
+                }
+                else{
+                    // nothing will ever free the slot
+                    dropped.increment();
+                    return;
+                }
+            }
+        }
+        kind[slot] = k;
+        vehicle[slot] = v;
+        distance[slot] = d;
+        text[slot] = t;
+        reason[slot] = r;
+        sequence.set(slot, pos + 1);
+    }
+
+    private void drainLoop(){
+        StringBuilder batch = new StringBuilder(16 * 1024);
+        long next = head;
+        while (true){
+            int n = 0;
+            while (n < MAX_BATCH){
+                int slot = (int) (next & mask);
+                if (sequence.get(slot) != next + 1) break;
+                append(batch, slot);
+                vehicle[slot] = null;
+                text[slot] = null;
+                reason[slot] = null;
+                sequence.set(slot, next + mask + 1);
+                next++;
+                n++;
+            }
+            if (n > 0){
+                PrintStream target = out != null ? out : System.out;
+                target.print(batch);
+                target.flush();
+                batch.setLength(0);
+                head = next;
+            }
+            else if (closed && next == tail.get()){
+                return;
+            }
+            else{
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void append(StringBuilder batch, int slot){
+        switch (kind[slot]){
+            case JOURNEY: batch.append(vehicle[slot].describeJourney(distance[slot])); break;
+            case DUPLICATE_MODEL: batch.append(ConsoleEventSink.duplicateModelLine(text[slot])); break;
+            case VEHICLE_SKIPPED: batch.append(ConsoleEventSink.vehicleSkippedLine(text[slot], reason[slot])); break;
+            default: batch.append(text[slot]);
+        }
+        batch.append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,45 @@
+package events;
+
+import vehicles.Vehicle;
+
+//Prints every event to System.out as soon as it happens, one line each.
+//The line formats are shared with AsyncEventSink.
+public final class ConsoleEventSink implements EventSink{
+
+    public static final ConsoleEventSink INSTANCE = new ConsoleEventSink();
+
+    private ConsoleEventSink(){}
+
+    @Override
+    public void journeyCompleted(Vehicle v, double distance){
+        System.out.println(v.describeJourney(distance));
+    }
+
+    @Override
+    public void maintenanceDone(Vehicle v, String note){
+        System.out.println(note);
+    }
+
+    @Override
+    public void duplicateModel(String model){
+        System.out.println(duplicateModelLine(model));
+    }
+
+    @Override
+    public void vehicleSkipped(String id, String reason){
+        System.out.println(vehicleSkippedLine(id, reason));
+    }
+
+    @Override
+    public void recordSkipped(String message){
+        System.out.println(message);
+    }
+
+    static String duplicateModelLine(String model){
+        return "Note: model already present in fleet: " + model;
+    }
+
+    static String vehicleSkippedLine(String id, String reason){
+        return "Vehicle " + id + " skipped: " + reason;
+    }
+}
@@ -0,0 +1,20 @@
+package events;
+
+import vehicles.Vehicle;
+
+//Receives the notes that vehicles and the fleet manager print while they work.
+//Implementations must be thread-safe: in parallel mode journeys report from pool threads.
+public interface EventSink{
+
+    void journeyCompleted(Vehicle v, double distance);
+
+    void maintenanceDone(Vehicle v, String note);
+
+    void duplicateModel(String model);
+
+    //a vehicle left out of a fleet-wide operation
+    void vehicleSkipped(String id, String reason);
+
+    //a CSV line or duplicate record left out while loading
+    void recordSkipped(String message);
+}
@@ -0,0 +1,20 @@
+package events;
+
+import java.util.Objects;
+
+//The sink every vehicle and fleet manager reports to. Console by default, so the program
+//prints what it always printed until another sink is installed.
+public final class Events{
+
+    private static volatile EventSink sink = ConsoleEventSink.INSTANCE;
+
+    private Events(){}
+
+    public static EventSink sink(){
+        return sink;
+    }
+
+    public static void setSink(EventSink s){
+        sink = Objects.requireNonNull(s, "Sink cannot be null");
+    }
+}
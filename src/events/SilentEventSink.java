@@ -0,0 +1,26 @@
+package events;
+
+import vehicles.Vehicle;
+
+//Drops every event, for bulk runs and benchmarks where nobody reads the notes.
+public final class SilentEventSink implements EventSink{
+
+    public static final SilentEventSink INSTANCE = new SilentEventSink();
+
+    private SilentEventSink(){}
+
+    @Override
+    public void journeyCompleted(Vehicle v, double distance){}
+
+    @Override
+    public void maintenanceDone(Vehicle v, String note){}
+
+    @Override
+    public void duplicateModel(String model){}
+
+    @Override
+    public void vehicleSkipped(String id, String reason){}
+
+    @Override
+    public void recordSkipped(String message){}
+}
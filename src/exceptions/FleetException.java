@@ -0,0 +1,28 @@
+package exceptions;
+
+import java.util.function.Supplier;
+
+//Common base of the checked vehicle exceptions.
+//
+//Bulk paths (consumeFuelForAll, startAllJourneys) can fail for thousands of vehicles in one call,
+//so besides the usual message constructor there is a cheap one: it captures no stack trace and
+//builds the message only when getMessage() is called, from the supplier it was given. The supplier
+//is called again on every getMessage(), so it should only read state that does not change.
+public abstract class FleetException extends Exception {
+    private transient Supplier<String> lazyMessage;
+
+    protected FleetException(String message) {
+        super(message);
+    }
+
+    protected FleetException(Supplier<String> message) {
+        super(null, null, false, false);
+        this.lazyMessage = message;
+    }
+
+    @Override
+    public String getMessage() {
+        Supplier<String> m = lazyMessage;
+        return m != null ? m.get() : super.getMessage();
+    }
+}
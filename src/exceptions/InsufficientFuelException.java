@@ -1,7 +1,14 @@
 package exceptions;
 
-public class InsufficientFuelException extends Exception {
+import java.util.function.Supplier;
+
+public class InsufficientFuelException extends FleetException {
     public InsufficientFuelException(String message) {
         super(message);
     }
+
+    //stackless, message built when read (see FleetException)
+    public InsufficientFuelException(Supplier<String> message) {
+        super(message);
+    }
 }
@@ -1,7 +1,14 @@
 package exceptions;
 
-public class InvalidOperationException extends Exception {
+import java.util.function.Supplier;
+
+public class InvalidOperationException extends FleetException {
     public InvalidOperationException(String message) {
         super(message);
     }
+
+    //stackless, message built when read (see FleetException)
+    public InvalidOperationException(Supplier<String> message) {
+        super(message);
+    }
 }
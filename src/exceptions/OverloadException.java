@@ -1,7 +1,14 @@
 package exceptions;
 
-public class OverloadException extends Exception {
+import java.util.function.Supplier;
+
+public class OverloadException extends FleetException {
     public OverloadException(String message) {
         super(message);
     }
+
+    //stackless, message built when read (see FleetException)
+    public OverloadException(Supplier<String> message) {
+        super(message);
+    }
 }
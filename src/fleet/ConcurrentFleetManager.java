@@ -0,0 +1,262 @@
+package fleet;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import vehicles.*;
+import interfaces.*;
+import exceptions.*;
+
+//Thread-safe fleet for many concurrent readers and writers.
+//
+//Writers take one of a set of striped locks (chosen by vehicle ID), so adds and removes of
+//different vehicles rarely contend. Readers never lock and never copy: they read the latest
+//published immutable snapshot. Snapshots are rebuilt by a background publisher thread that
+//coalesces bursts of writes, so a snapshot can briefly lag the writes; awaitSnapshot() waits
+//until everything written so far is visible.
+//
+//The report and the speed ordering are maintained the way FleetManager maintains them (FleetStats
+//fed by vehicle change notifications, an ordered set by speed), so they are always current and
+//reading them costs no scan or sort.
+//
+//Trade-off: readers never copy, but each publish copies the whole insertion order into a new
+//list, O(n) on the publisher thread. Publishes are coalesced (one per burst of writes, however
+//many writes it covers), so the copy is paid per burst rather than per write, and writers only
+//pay for queueing it. Under sustained writes on a large fleet the publisher stays busy and
+//snapshots lag further behind; see the contention numbers in the README.
+public class ConcurrentFleetManager implements AutoCloseable{
+
+    private static final int STRIPES = 64;
+
+    //immutable view of the fleet in insertion order
+    public static final class Snapshot{
+        private final long version;
+        private final List<Vehicle> vehicles;
+
+        private Snapshot(long version, List<Vehicle> vehicles){
+            this.version = version;
+            this.vehicles = vehicles;
+        }
+
+        public long getVersion(){
+            return version;
+        }
+
+        public List<Vehicle> getVehicles(){
+            return vehicles;
+        }
+    }
+
+    private final ConcurrentHashMap<String, FleetEntry> byId = new ConcurrentHashMap<>();
+    //insertion sequence -> vehicle, gives the snapshots their fleet order
+    private final ConcurrentSkipListMap<Long, Vehicle> order = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Integer> modelCounts = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    //report aggregates; its monitor also orders membership changes against change notifications
+    private final FleetStats stats = new FleetStats();
+    //max speed never changes, so entries never have to be re-keyed
+    private final ConcurrentSkipListSet<FleetEntry> bySpeed = new ConcurrentSkipListSet<>(FleetIndexes.SPEED_ORDER);
+
+    private final AtomicLong nextSeq = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot published = new Snapshot(0, Collections.emptyList());
+    //publishing and waiting for a publish
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final Condition publishedCond = publishLock.newCondition();
+
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fleet-snapshot-publisher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ConcurrentFleetManager(){
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    public void addVehicle(Vehicle v) throws InvalidOperationException{
+        Objects.requireNonNull(v, "Vehicle cannot be null");
+        String id = v.getID();
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try{
+            if (byId.containsKey(id)){
+                throw new InvalidOperationException("Duplicate vehicle id: " + id);
+            }
+            if (v.hasListener()){
+                throw new InvalidOperationException("Vehicle " + id + " already belongs to another fleet, remove it there first");
+            }
+            FleetEntry e = new FleetEntry(v, nextSeq.getAndIncrement(), -1);
+            v.setListener(changed -> onVehicleChanged(e));
+            synchronized (stats){
+                byId.put(id, e);
+                // state as of now; later changes arrive through the listener
+                e.capture();
+                stats.add(e);
+            }
+            order.put(e.seq, v);
+            bySpeed.add(e);
+            // a null model is allowed but is not a distinct model, as in FleetManager
+            if (v.getModel() != null) modelCounts.merge(v.getModel(), 1, Integer::sum);
+        }
+        finally{
+            lock.unlock();
+        }
+        changed();
+    }
+
+    public void removeVehicle(String id) throws InvalidOperationException{
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try{
+            FleetEntry e;
+            synchronized (stats){
+                e = byId.remove(id);
+                if (e == null){
+                    throw new InvalidOperationException("Vehicle not found: " + id);
+                }
+                stats.remove(e);
+            }
+            e.vehicle.setListener(null);
+            order.remove(e.seq);
+            bySpeed.remove(e);
+            if (e.vehicle.getModel() != null){
+                modelCounts.computeIfPresent(e.vehicle.getModel(), (model, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+        finally{
+            lock.unlock();
+        }
+        changed();
+    }
+
+    // may run on any thread that changes a vehicle; ignored once the vehicle has been removed
+    private void onVehicleChanged(FleetEntry e){
+        synchronized (stats){
+            if (byId.get(e.vehicle.getID()) == e) stats.update(e);
+        }
+    }
+
+    // always current, straight from the ID map
+    public Vehicle getVehicleById(String id){
+        FleetEntry e = byId.get(id);
+        return e == null ? null : e.vehicle;
+    }
+
+    public int size(){
+        return byId.size();
+    }
+
+    public Set<String> getDistinctModels(){
+        return new TreeSet<>(modelCounts.keySet());
+    }
+
+    // latest published snapshot: no lock, no copy
+    public Snapshot snapshot(){
+        return published;
+    }
+
+    public List<Vehicle> getFleetSnapshot(){
+        return published.vehicles;
+    }
+
+    // waits until a snapshot containing every write made before this call has been published
+    public Snapshot awaitSnapshot() throws InterruptedException{
+        long target = version.get();
+        if (published.version >= target) return published;
+        requestPublish();
+        publishLock.lock();
+        try{
+            while (published.version < target){
+                if (publisher.isShutdown()){
+                    // closed: nobody else will publish
+                    publish();
+                    break;
+                }
+                // bounded, so a publish request rejected by a concurrent close is retried above
+                publishedCond.await(10, TimeUnit.MILLISECONDS);
+            }
+            return published;
+        }
+        finally{
+            publishLock.unlock();
+        }
+    }
+
+    public List<Vehicle> searchByType(Class<?> type){
+        List<Vehicle> ans = new ArrayList<>();
+        for (Vehicle v : published.vehicles){
+            if (type.isInstance(v)) ans.add(v);
+        }
+        return ans;
+    }
+
+    // fastest first, equal speeds in fleet order; current, read off the maintained ordering
+    public List<Vehicle> getFleetSortedBySpeed(){
+        return FleetIndexes.list(bySpeed);
+    }
+
+    // current, from the maintained aggregates: no scan of the fleet
+    public String generateReport(){
+        Map<String,Integer> byType;
+        double totalMileage, avgEff;
+        int total, maintenanceCount;
+        synchronized (stats){
+            total = stats.vehicleCount();
+            byType = stats.countByType();
+            totalMileage = stats.totalMileage();
+            avgEff = stats.averageEfficiency();
+            maintenanceCount = stats.maintenanceCount();
+        }
+        return FleetManager.formatReport(total, byType, totalMileage, avgEff, maintenanceCount);
+    }
+
+    @Override
+    public void close(){
+        publisher.shutdownNow();
+    }
+
+    private ReentrantLock stripeFor(String id){
+        return stripes[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private void changed(){
+        version.incrementAndGet();
+        requestPublish();
+    }
+
+    // at most one rebuild is queued at a time; writes that land while it runs queue the next one
+    private void requestPublish(){
+        if (publishPending.compareAndSet(false, true)){
+            try{
+                publisher.execute(this::publish);
+            }
+            catch (RejectedExecutionException e){
+                publishPending.set(false);
+            }
+        }
+    }
+
+    // under publishLock, so two publishers (the background thread and awaitSnapshot after close)
+    // can never move the published version backwards
+    private void publish(){
+        publishLock.lock();
+        try{
+            publishPending.set(false);
+            long v = version.get();
+            if (published.version >= v) return;
+            List<Vehicle> vehicles = Collections.unmodifiableList(new ArrayList<>(order.values()));
+            published = new Snapshot(v, vehicles);
+            publishedCond.signalAll();
+        }
+        finally{
+            publishLock.unlock();
+        }
+    }
+}
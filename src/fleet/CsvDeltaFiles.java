@@ -0,0 +1,65 @@
+package fleet;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//Delta files written by FleetManager.saveDelta, and the merge that folds them into a base CSV.
+//
+//A delta uses the fleet CSV format: a full line for every vehicle added or changed since the
+//last save, plus one "Removed,<id>" line per removed vehicle. Deltas are applied in order, a
+//line replaces the base line with the same ID in place, new IDs go to the end.
+final class CsvDeltaFiles{
+
+    static final String REMOVED = "Removed";
+
+    private CsvDeltaFiles(){}
+
+    // rewrites base with the deltas applied, through a temporary file and an atomic rename, then
+    // deletes the deltas; lines are moved as text, no vehicle is parsed.
+    // The new file is on disk before it replaces base and the deltas go only after that, so a crash
+    // at any point leaves either the old base with its deltas or the merged base.
+    static int merge(Path base, List<Path> deltas) throws IOException{
+        Map<String, String> lines = new LinkedHashMap<>();
+        if (Files.exists(base)) readInto(base, lines);
+        for (Path delta : deltas) readInto(delta, lines);
+
+        Path tmp = base.resolveSibling(base.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            BufferedWriter out = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8));
+            for (String line : lines.values()){
+                out.write(line);
+                out.newLine();
+            }
+            out.flush();
+            ch.force(true);
+        }
+        Files.move(tmp, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Path delta : deltas) Files.deleteIfExists(delta);
+        return lines.size();
+    }
+
+    private static void readInto(Path file, Map<String, String> lines) throws IOException{
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            String line;
+            while ((line = in.readLine()) != null){
+                if (line.trim().isEmpty()) continue;
+                int first = line.indexOf(',');
+                if (first < 0){
+                    lines.put(line, line);    // malformed, kept so the loader reports it as before
+                    continue;
+                }
+                int second = line.indexOf(',', first + 1);
+                String id = second < 0 ? line.substring(first + 1) : line.substring(first + 1, second);
+                if (line.substring(0, first).trim().equals(REMOVED)) lines.remove(id);
+                else lines.put(id, line);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package fleet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import vehicles.Vehicle;
+
+//Memory-maps a fleet CSV file, splits it into chunks on line boundaries and parses the
+//chunks in parallel. Fields are tokenized in place and numbers are parsed straight from
+//the mapped bytes; only the id/model strings are materialized.
+//
+//A mapping outlives the load: it is only released when its buffer is garbage collected, and
+//Windows refuses to replace or delete a file while any part of it is mapped, which would break
+//saving back over the file just loaded. On Windows each chunk is therefore read into a heap
+//buffer instead, with a positional read from the parsing thread.
+final class CsvFleetLoader{
+
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final int MAX_CHUNK = 1 << 28;
+    private static final boolean MAP = !System.getProperty("os.name", "").startsWith("Windows");
+
+    // vehicles in file order plus the skipped lines, also in file order
+    static final class Result{
+        final List<Vehicle> vehicles = new ArrayList<>();
+        final List<String> skipped = new ArrayList<>();
+    }
+
+    private CsvFleetLoader(){}
+
+    static Result load(Path file) throws IOException{
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = ch.size();
+            long[] bounds = chunkBounds(ch, size);
+            int chunks = bounds.length - 1;
+
+            Chunk[] parsed = new Chunk[chunks];
+            if (MAP){
+                MappedByteBuffer[] maps = new MappedByteBuffer[chunks];
+                for (int i = 0; i < chunks; i++){
+                    maps[i] = ch.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+                }
+                IntStream.range(0, chunks).parallel().forEach(i -> parsed[i] = parseChunk(maps[i]));
+            }
+            else{
+                try{
+                    IntStream.range(0, chunks).parallel().forEach(i -> parsed[i] = parseChunk(readChunk(ch, bounds[i], bounds[i + 1])));
+                }
+                catch (UncheckedIOException e){
+                    throw e.getCause();
+                }
+            }
+
+            // stitch the chunks back together, turning chunk-local line numbers into file line numbers
+            Result result = new Result();
+            int linesBefore = 0;
+            for (Chunk c : parsed){
+                result.vehicles.addAll(c.vehicles);
+                for (int k = 0; k < c.errorLines.size(); k++){
+                    result.skipped.add("Skipping line " + (linesBefore + c.errorLines.get(k)) + ": " + c.errorMessages.get(k));
+                }
+                linesBefore += c.lineCount;
+            }
+            return result;
+        }
+    }
+
+    // the bytes in [from, to), read without moving the channel position so chunks can be read concurrently
+    private static ByteBuffer readChunk(FileChannel ch, long from, long to){
+        ByteBuffer buf = ByteBuffer.allocate((int) (to - from));
+        try{
+            while (buf.hasRemaining()){
+                int n = ch.read(buf, from + buf.position());
+                if (n < 0) throw new IOException("File shrank while loading");
+            }
+        }
+        catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    // chunk start offsets, every chunk but the first starts right after a '\n'
+    private static long[] chunkBounds(FileChannel ch, long size) throws IOException{
+        int target = Runtime.getRuntime().availableProcessors() * 4;
+        long chunk = Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, size / target + 1));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long pos = chunk;
+        while (pos < size){
+            long nl = nextLineStart(ch, pos, probe);
+            if (nl >= size) break;
+            bounds.add(nl);
+            pos = nl + chunk;
+        }
+        bounds.add(size);
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    private static long nextLineStart(FileChannel ch, long pos, ByteBuffer probe) throws IOException{
+        while (true){
+            probe.clear();
+            int n = ch.read(probe, pos);
+            if (n <= 0) return Long.MAX_VALUE;
+            for (int i = 0; i < n; i++){
+                if (probe.get(i) == '\n') return pos + i + 1;
+            }
+            pos += n;
+        }
+    }
+
+    private static final class Chunk{
+        final List<Vehicle> vehicles = new ArrayList<>();
+        final List<Integer> errorLines = new ArrayList<>();
+        final List<String> errorMessages = new ArrayList<>();
+        int lineCount;
+    }
+
+    private static Chunk parseChunk(ByteBuffer buf){
+        Chunk chunk = new Chunk();
+        Record rec = new Record(buf);
+        int limit = buf.limit();
+        int lineStart = 0;
+        while (lineStart < limit){
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+            chunk.lineCount++;
+
+            int end = lineEnd;
+            if (end > lineStart && buf.get(end - 1) == '\r') end--;
+            if (!isBlank(buf, lineStart, end)){
+                rec.tokenize(lineStart, end);
+                try{
+                    chunk.vehicles.add(FleetManager.VehicleFactory.createVehicle(rec));
+                }
+                catch (Exception e){
+                    chunk.errorLines.add(chunk.lineCount);
+                    chunk.errorMessages.add(e.getMessage());
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    private static boolean isBlank(ByteBuffer buf, int from, int to){
+        for (int i = from; i < to; i++){
+            if ((buf.get(i) & 0xff) > ' ') return false;
+        }
+        return true;
+    }
+
+    //One CSV line, fields are [start, end) offsets into the mapped buffer.
+    //Reused for every line of a chunk, so tokenizing allocates nothing.
+    static final class Record{
+        private final ByteBuffer buf;
+        private int[] start = new int[16];
+        private int[] end = new int[16];
+        private int count;
+        private byte[] scratch = new byte[64];
+
+        private static final double[] POW10 = new double[23];
+        static{
+            POW10[0] = 1.0;
+            for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+        }
+
+        private Record(ByteBuffer buf){
+            this.buf = buf;
+        }
+
+        private void tokenize(int from, int to){
+            count = 0;
+            int fieldStart = from;
+            for (int i = from; i <= to; i++){
+                if (i == to || buf.get(i) == ','){
+                    if (count == start.length){
+                        start = Arrays.copyOf(start, count * 2);
+                        end = Arrays.copyOf(end, count * 2);
+                    }
+                    start[count] = fieldStart;
+                    end[count] = i;
+                    count++;
+                    fieldStart = i + 1;
+                }
+            }
+        }
+
+        int size(){
+            return count;
+        }
+
+        String text(int field){
+            int len = end[field] - start[field];
+            if (len > scratch.length) scratch = new byte[len];
+            buf.get(start[field], scratch, 0, len);
+            return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        boolean bool(int field){
+            int s = start[field];
+            if (end[field] - s != 4) return false;
+            return (buf.get(s) | 0x20) == 't' && (buf.get(s + 1) | 0x20) == 'r'
+                    && (buf.get(s + 2) | 0x20) == 'u' && (buf.get(s + 3) | 0x20) == 'e';
+        }
+
+        // plain [-]digits values are parsed in place, anything else goes through Integer.parseInt
+        int integer(int field){
+            int i = start[field], e = end[field];
+            boolean neg = i < e && buf.get(i) == '-';
+            if (neg || (i < e && buf.get(i) == '+')) i++;
+            if (i == e || e - i > 9) return Integer.parseInt(text(field));
+            int value = 0;
+            for (; i < e; i++){
+                int d = buf.get(i) - '0';
+                if (d < 0 || d > 9) return Integer.parseInt(text(field));
+                value = value * 10 + d;
+            }
+            return neg ? -value : value;
+        }
+
+        // fast path for [-]digits[.digits] with at most 15 significant digits: the mantissa and the
+        // power of ten are both exact doubles, so one division gives the correctly rounded result
+        // (same as Double.parseDouble). Anything else falls back to Double.parseDouble.
+        double number(int field){
+            int i = start[field], e = end[field];
+            boolean neg = i < e && buf.get(i) == '-';
+            if (neg || (i < e && buf.get(i) == '+')) i++;
+            long mantissa = 0;
+            int digits = 0;
+            int fraction = -1;
+            boolean sawDigit = false;
+            for (; i < e; i++){
+                byte b = buf.get(i);
+                if (b == '.' && fraction < 0){
+                    fraction = 0;
+                    continue;
+                }
+                int d = b - '0';
+                if (d < 0 || d > 9 || digits == 15) return Double.parseDouble(text(field));
+                sawDigit = true;
+                mantissa = mantissa * 10 + d;
+                if (mantissa != 0) digits++;
+                if (fraction >= 0) fraction++;
+            }
+            if (!sawDigit || fraction >= POW10.length){
+                return Double.parseDouble(text(field));
+            }
+            double value = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+            return neg ? -value : value;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package fleet;
+
+import java.util.*;
+
+import vehicles.Vehicle;
+import interfaces.*;
+
+//Per-concrete-class buckets plus buckets for the capability interfaces, each in fleet order.
+//Type queries only touch the buckets that match instead of testing every vehicle.
+final class FleetBuckets{
+
+    static final List<Class<?>> CAPABILITIES = List.of(
+            FuelConsumable.class, CargoCarrier.class, PassengerCarrier.class, Maintainable.class);
+
+    private final Map<Class<?>, Set<FleetEntry>> byClass = new HashMap<>();
+    private final Map<Class<?>, Set<FleetEntry>> byCapability = new HashMap<>();
+
+    FleetBuckets(){
+        for (Class<?> cap : CAPABILITIES) byCapability.put(cap, new LinkedHashSet<>());
+    }
+
+    void add(FleetEntry e){
+        Class<?> cls = e.vehicle.getClass();
+        byClass.computeIfAbsent(cls, k -> new LinkedHashSet<>()).add(e);
+        for (Class<?> cap : CAPABILITIES){
+            if (cap.isAssignableFrom(cls)) byCapability.get(cap).add(e);
+        }
+    }
+
+    void remove(FleetEntry e){
+        Class<?> cls = e.vehicle.getClass();
+        Set<FleetEntry> bucket = byClass.get(cls);
+        if (bucket != null){
+            bucket.remove(e);
+            if (bucket.isEmpty()) byClass.remove(cls);
+        }
+        for (Class<?> cap : CAPABILITIES){
+            if (cap.isAssignableFrom(cls)) byCapability.get(cap).remove(e);
+        }
+    }
+
+    void clear(){
+        byClass.clear();
+        for (Set<FleetEntry> bucket : byCapability.values()) bucket.clear();
+    }
+
+    // vehicles of the given capability interface, in fleet order
+    Vehicle[] withCapability(Class<?> cap){
+        Set<FleetEntry> bucket = byCapability.get(cap);
+        Vehicle[] out = new Vehicle[bucket.size()];
+        int i = 0;
+        for (FleetEntry e : bucket) out[i++] = e.vehicle;
+        return out;
+    }
+
+    // every vehicle that is an instance of type, in fleet order
+    List<Vehicle> find(Class<?> type){
+        Set<FleetEntry> direct = byCapability.get(type);
+        if (direct != null){
+            List<Vehicle> out = new ArrayList<>(direct.size());
+            for (FleetEntry e : direct) out.add(e.vehicle);
+            return out;
+        }
+
+        // concrete class: normally exactly one bucket. Superclass or other interface: combine the
+        // matching class buckets and restore fleet order
+        List<FleetEntry> matched = new ArrayList<>();
+        int buckets = 0;
+        for (Map.Entry<Class<?>, Set<FleetEntry>> b : byClass.entrySet()){
+            if (type.isAssignableFrom(b.getKey())){
+                matched.addAll(b.getValue());
+                buckets++;
+            }
+        }
+        if (buckets > 1) matched.sort(Comparator.comparingLong(e -> e.seq));
+        List<Vehicle> out = new ArrayList<>(matched.size());
+        for (FleetEntry e : matched) out.add(e.vehicle);
+        return out;
+    }
+}
@@ -0,0 +1,51 @@
+package fleet;
+
+import vehicles.Vehicle;
+import interfaces.Maintainable;
+
+//FleetManager's per-vehicle record. The cached fields are the vehicle state as of the last
+//change notification, so maintained aggregates and indexes can retract the old values before
+//adding the new ones.
+final class FleetEntry{
+
+    final Vehicle vehicle;
+    //registration order, breaks ties in the ordered indexes so they match a stable sort of the fleet
+    final long seq;
+    //FleetTable slot, dense and reused after the vehicle is removed
+    final int slot;
+    final double maxSpeed;
+
+    double mileage;
+    double efficiency;
+    boolean needsMaintenance;
+    //changed since the last save, guarded by FleetManager's index lock
+    boolean dirty;
+
+    FleetEntry(Vehicle vehicle, long seq, int slot){
+        this.vehicle = vehicle;
+        this.seq = seq;
+        this.slot = slot;
+        this.maxSpeed = vehicle.getMaxSpeed();
+        capture();
+    }
+
+    // search key for the ordered indexes, never registered; maxSpeed and mileage are both set to
+    // key (FleetRangeIndex reads a probe's key from mileage)
+    private FleetEntry(double key, long seq){
+        this.vehicle = null;
+        this.seq = seq;
+        this.slot = -1;
+        this.maxSpeed = key;
+        this.mileage = key;
+    }
+
+    static FleetEntry probe(double key, long seq){
+        return new FleetEntry(key, seq);
+    }
+
+    void capture(){
+        mileage = vehicle.getCurrentMileage();
+        efficiency = vehicle.calculateFuelEfficiency();
+        needsMaintenance = (vehicle instanceof Maintainable) && ((Maintainable) vehicle).needsMaintenance();
+    }
+}
@@ -0,0 +1,155 @@
+package fleet;
+
+import java.util.*;
+
+import vehicles.Vehicle;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+
+//Ordered secondary indexes over the fleet entries. Keys come from the entries' cached state,
+//so an entry has to leave an index before its key changes and rejoin afterwards
+//(detachChanged / reattach around FleetEntry.capture()).
+final class FleetIndexes{
+
+    static final int EFFICIENCY = 1;
+    static final int MAINTENANCE = 2;
+
+    // fastest first, equal speeds in fleet order
+    static final Comparator<FleetEntry> SPEED_ORDER = (a, b) -> {
+        int c = Double.compare(b.maxSpeed, a.maxSpeed);
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    };
+
+    private static final Comparator<String> MODEL_NAMES = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+
+    // same model code means same name, no string compare needed; vehicles without a model come first
+    private static final Comparator<FleetEntry> MODEL_ORDER = (a, b) -> {
+        int c = a.vehicle.getModelCode() == b.vehicle.getModelCode() ? 0
+                : MODEL_NAMES.compare(a.vehicle.getModel(), b.vehicle.getModel());
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    };
+
+    // most efficient first, equal efficiencies in fleet order
+    private static final Comparator<FleetEntry> EFFICIENCY_ORDER = (a, b) -> {
+        int c = Double.compare(b.efficiency, a.efficiency);
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    };
+
+    final NavigableSet<FleetEntry> bySpeed = new TreeSet<>(SPEED_ORDER);
+    final NavigableSet<FleetEntry> byModel = new TreeSet<>(MODEL_ORDER);
+    final NavigableSet<FleetEntry> byEfficiency = new TreeSet<>(EFFICIENCY_ORDER);
+
+    // maintenance queue: only the vehicles that need maintenance, furthest past the mileage threshold
+    // first (scheduled vehicles below it come last), ties in fleet order
+    private static final Comparator<FleetEntry> OVERDUE_ORDER = (a, b) -> {
+        int c = Double.compare(b.mileage, a.mileage);
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    };
+
+    final NavigableSet<FleetEntry> dueForMaintenance = new TreeSet<>(OVERDUE_ORDER);
+
+    // range query indexes, refreshed lazily (see FleetRangeIndex); byFuel only holds FuelConsumable vehicles
+    final FleetRangeIndex byMileage = new FleetRangeIndex(Vehicle::getCurrentMileage);
+    final FleetRangeIndex byFuel = new FleetRangeIndex(v -> ((FuelConsumable) v).getFuelLevel());
+    // how far each vehicle can travel, see FleetReach
+    final FleetReach reach = new FleetReach();
+
+    void add(FleetEntry e){
+        bySpeed.add(e);
+        byModel.add(e);
+        byEfficiency.add(e);
+        if (e.needsMaintenance) dueForMaintenance.add(e);
+        byMileage.add(e);
+        if (e.vehicle instanceof FuelConsumable) byFuel.add(e);
+        reach.add(e);
+    }
+
+    void remove(FleetEntry e){
+        bySpeed.remove(e);
+        byModel.remove(e);
+        byEfficiency.remove(e);
+        dueForMaintenance.remove(e);
+        byMileage.remove(e);
+        if (e.vehicle instanceof FuelConsumable) byFuel.remove(e);
+        reach.remove(e);
+    }
+
+    void clear(){
+        bySpeed.clear();
+        byModel.clear();
+        byEfficiency.clear();
+        dueForMaintenance.clear();
+        byMileage.clear();
+        byFuel.clear();
+        reach.clear();
+    }
+
+    // takes e out of every index whose key no longer matches the vehicle, returns those indexes as a mask.
+    // Max speed and model have no setters, so only efficiency (cargo dependent for trucks) and the
+    // maintenance queue (entering/leaving it, or moving further past the threshold) can change.
+    int detachChanged(FleetEntry e){
+        int mask = 0;
+        if (Double.compare(e.vehicle.calculateFuelEfficiency(), e.efficiency) != 0){
+            byEfficiency.remove(e);
+            mask |= EFFICIENCY;
+        }
+        boolean due = (e.vehicle instanceof Maintainable) && ((Maintainable) e.vehicle).needsMaintenance();
+        if (due != e.needsMaintenance
+                || (due && Double.compare(e.vehicle.getCurrentMileage(), e.mileage) != 0)){
+            dueForMaintenance.remove(e);
+            mask |= MAINTENANCE;
+        }
+        return mask;
+    }
+
+    void reattach(FleetEntry e, int mask){
+        if ((mask & EFFICIENCY) != 0) byEfficiency.add(e);
+        if ((mask & MAINTENANCE) != 0 && e.needsMaintenance) dueForMaintenance.add(e);
+        // mileage, fuel and reach are re-keyed by the next range query
+        byMileage.changed(e);
+        if (e.vehicle instanceof FuelConsumable) byFuel.changed(e);
+        reach.changed(e);
+    }
+
+    Vehicle fastest(){
+        return bySpeed.isEmpty() ? null : bySpeed.first().vehicle;
+    }
+
+    // lowest speed, and of those the earliest in fleet order (what Collections.min returns)
+    Vehicle slowest(){
+        if (bySpeed.isEmpty()) return null;
+        double lowest = bySpeed.last().maxSpeed;
+        return bySpeed.ceiling(FleetEntry.probe(lowest, Long.MIN_VALUE)).vehicle;
+    }
+
+    static List<Vehicle> list(NavigableSet<FleetEntry> index){
+        List<Vehicle> out = new ArrayList<>(index.size());
+        for (FleetEntry e : index) out.add(e.vehicle);
+        return out;
+    }
+
+    // bySpeed entries with min <= maxSpeed <= max, fastest first. The probes sort before/after
+    // every entry with the same speed, so both bounds are inclusive.
+    List<Vehicle> speedRange(double min, double max){
+        if (Double.isNaN(min) || Double.isNaN(max) || min > max){
+            throw new IllegalArgumentException("Invalid range: " + min + " to " + max);
+        }
+        List<Vehicle> out = new ArrayList<>();
+        for (FleetEntry e : bySpeed.subSet(FleetEntry.probe(max, Long.MIN_VALUE), true, FleetEntry.probe(min, Long.MAX_VALUE), true)){
+            out.add(e.vehicle);
+        }
+        return out;
+    }
+
+    // walks offset+limit entries, never the whole index
+    static List<Vehicle> page(NavigableSet<FleetEntry> index, int offset, int limit){
+        if (offset < 0 || limit < 0){
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        List<Vehicle> out = new ArrayList<>(Math.min(limit, index.size()));
+        Iterator<FleetEntry> it = index.iterator();
+        for (int i = 0; i < offset && it.hasNext(); i++) it.next();
+        while (out.size() < limit && it.hasNext()) out.add(it.next().vehicle);
+        return out;
+    }
+}
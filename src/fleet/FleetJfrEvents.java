@@ -0,0 +1,61 @@
+package fleet;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//JDK Flight Recorder events for the expensive FleetManager operations. They cost next to
+//nothing unless a recording has them enabled, e.g.
+//
+//  java -XX:StartFlightRecording=filename=fleet.jfr -cp bin app.Main
+//  jfr print --events fleet.Journeys,fleet.FileIo fleet.jfr
+final class FleetJfrEvents{
+
+    private FleetJfrEvents(){}
+
+    @Name("fleet.Journeys")
+    @Label("Fleet Journeys")
+    @Category("Fleet")
+    @Description("One startAllJourneys or runJourneys wave")
+    static final class Journeys extends Event{
+        @Label("Operation")
+        String operation;
+
+        @Label("Vehicles")
+        int vehicles;
+
+        @Label("Succeeded")
+        int succeeded;
+
+        @Label("Failed")
+        int failed;
+
+        @Label("Fuel Used")
+        double fuelUsed;
+    }
+
+    @Name("fleet.FileIo")
+    @Label("Fleet File I/O")
+    @Category("Fleet")
+    @Description("Fleet saved to or loaded from a CSV or snapshot file")
+    static final class FileIo extends Event{
+        @Label("Operation")
+        String operation;
+
+        @Label("Path")
+        String path;
+
+        @Label("Vehicles")
+        int vehicles;
+
+        @Label("Skipped Lines")
+        int skipped;
+
+        @Label("File Size")
+        @DataAmount
+        long bytes;
+    }
+}
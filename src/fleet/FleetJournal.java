@@ -0,0 +1,611 @@
+package fleet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import vehicles.*;
+import exceptions.*;
+import events.Events;
+
+//Append-only write-ahead journal of a FleetManager's mutations (see FleetManager.openJournal).
+//
+//A journal directory holds numbered segments and at most one complete snapshot:
+//
+//  journal-N.log  : int magic 'FLTJ', short version, then records
+//  snapshot-N.bin : FleetSnapshotCodec snapshot of the fleet as of the start of journal-N.log
+//
+//  record : int length, int CRC32 of the body, body = byte kind + payload
+//  ADD / UPDATE : the vehicle's full state after the change, in the snapshot record encoding
+//  REMOVE       : the vehicle id
+//  CLEAR        : no payload, the fleet was replaced (a load), the new vehicles follow as ADDs
+//
+//Adds, removes and every state change (journeys, refuels, cargo, passengers, maintenance) are
+//logged as after-images, so replay just keeps the last image per vehicle and never re-runs a
+//journey. Records are appended to a memory buffer and a writer thread writes and fsyncs them in
+//batches: everything appended while one fsync is running goes out with the next one (group
+//commit). By default mutations do not wait for the disk, sync() waits for everything so far;
+//with setDurableWrites(true) every mutation waits for the batch holding its record.
+//
+//Compaction runs in the background: the writer rolls over to a new segment and a compactor
+//thread folds the previous snapshot and the closed segments into a new snapshot, without
+//touching the live fleet. On startup the snapshot is loaded and the later segments replayed;
+//a torn record at the end of the last segment (crash mid-write) is cut off.
+//
+//If the writer fails, the failure is latched: the fleet keeps working, later records are dropped,
+//and sync(), compact() and close() throw the IOException, as does every pending compaction.
+//Mutations never throw it, they reach the journal from vehicle listeners after the vehicle has
+//already changed; getFailure() tells without waiting whether the journal is still recording.
+//
+//Vehicle types the snapshot format cannot hold are not journaled; each one is reported to the
+//event sink when it is added, like the records a load skips.
+public final class FleetJournal implements AutoCloseable{
+
+    static final int MAGIC = 0x464C544A;
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2;
+    private static final int RECORD_HEADER = 4 + 4;
+
+    static final byte ADD = 1;
+    static final byte UPDATE = 2;
+    static final byte REMOVE = 3;
+    static final byte CLEAR = 4;
+
+    //appenders wait for the writer once this much is buffered
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_RECORD = RECORD_HEADER + 1 + 1 + 25 + 20 + 2 * (2 + 0xFFFF);
+
+    private static final long DEFAULT_COMPACTION_BYTES = 64L << 20;
+
+    private final Path dir;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition spaceFree = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+
+    //guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+    private long appendedBytes;
+    private long durableBytes;
+    private boolean rollRequested;
+    private CompletableFuture<Void> requestedCompaction;
+    private boolean closing;
+    private IOException failure;
+
+    //only touched by the writer thread once it has started
+    private FileChannel segment;
+    private long segmentNumber;
+    private long segmentBytes;
+
+    private volatile boolean durableWrites;
+    private volatile long compactionBytes = DEFAULT_COMPACTION_BYTES;
+
+    private final Thread writer;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fleet-journal-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private FleetJournal(Path dir, long segmentNumber) throws IOException{
+        this.dir = dir;
+        this.segmentNumber = segmentNumber;
+        this.segment = createSegment(dir, segmentNumber);
+        this.writer = new Thread(this::writeLoop, "fleet-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    //what a journal directory held when it was opened
+    static final class Recovered{
+        final FleetJournal journal;
+        final List<Vehicle> vehicles;
+        //false for a directory without any snapshot or segment
+        final boolean existed;
+
+        Recovered(FleetJournal journal, List<Vehicle> vehicles, boolean existed){
+            this.journal = journal;
+            this.vehicles = vehicles;
+            this.existed = existed;
+        }
+    }
+
+    // loads the newest snapshot, replays the segments after it and starts a fresh segment for new records
+    static Recovered open(Path dir) throws IOException{
+        Files.createDirectories(dir);
+        long snapshot = -1;
+        long lastSegment = 0;
+        for (Path p : list(dir)){
+            String name = p.getFileName().toString();
+            if (name.endsWith(".tmp")){
+                Files.delete(p);    // a compaction that did not finish
+                continue;
+            }
+            long n = number(name);
+            if (name.startsWith("snapshot-")) snapshot = Math.max(snapshot, n);
+            else if (name.startsWith("journal-")) lastSegment = Math.max(lastSegment, n);
+        }
+        boolean existed = snapshot >= 0 || lastSegment > 0;
+        long first = Math.max(snapshot, 1);
+        deleteBefore(dir, first, snapshot);
+
+        LinkedHashMap<String, Vehicle> state = new LinkedHashMap<>();
+        if (snapshot >= 0){
+            for (Vehicle v : FleetSnapshotCodec.read(snapshotPath(dir, snapshot))) state.put(v.getID(), v);
+        }
+        for (long n = first; n <= lastSegment; n++){
+            Path p = segmentPath(dir, n);
+            if (Files.exists(p)) replay(p, state, n == lastSegment);
+        }
+        FleetJournal journal = new FleetJournal(dir, Math.max(lastSegment, first - 1) + 1);
+        return new Recovered(journal, new ArrayList<>(state.values()), existed);
+    }
+
+    // mutations wait until their record is on disk; off by default
+    public void setDurableWrites(boolean durableWrites){
+        this.durableWrites = durableWrites;
+    }
+
+    public boolean isDurableWrites(){
+        return durableWrites;
+    }
+
+    // the writer rolls over to a new segment and compacts once the current one reaches this size
+    public void setCompactionThreshold(long bytes){
+        if (bytes <= 0){
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        compactionBytes = bytes;
+    }
+
+    public Path getDirectory(){
+        return dir;
+    }
+
+    // bytes appended / bytes written and fsynced since the journal was opened
+    public long getAppendedBytes(){
+        lock.lock();
+        try{
+            return appendedBytes;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    public long getDurableBytes(){
+        lock.lock();
+        try{
+            return durableBytes;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    // the IOException that stopped the writer, null while the journal is recording
+    public IOException getFailure(){
+        lock.lock();
+        try{
+            return failure;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    // waits until every record appended before this call is on disk
+    public void sync() throws IOException{
+        lock.lock();
+        try{
+            awaitDurable(appendedBytes);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    // rolls over to a new segment and folds everything before it into a new snapshot in the
+    // background; the future completes once the new snapshot has replaced the old files
+    public CompletableFuture<Void> compact() throws IOException{
+        lock.lock();
+        try{
+            checkOpen();
+            if (requestedCompaction == null) requestedCompaction = new CompletableFuture<>();
+            rollRequested = true;
+            hasWork.signal();
+            return requestedCompaction;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    // writes out everything appended so far, then stops the writer and waits for a running compaction
+    @Override
+    public void close() throws IOException{
+        lock.lock();
+        try{
+            if (closing) return;
+            closing = true;
+            hasWork.signal();
+        }
+        finally{
+            lock.unlock();
+        }
+        try{
+            writer.join();
+            compactor.shutdown();
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+        if (failure != null) throw failure;
+    }
+
+    // The mutation hooks below never throw: the change they record has already been made. A failed
+    // or closed journal drops the record; the latched failure is what sync() and close() report.
+
+    void added(Vehicle v){
+        record(ADD, v, null);
+    }
+
+    void changed(Vehicle v){
+        record(UPDATE, v, null);
+    }
+
+    void removed(String id){
+        record(REMOVE, null, id);
+    }
+
+    // a load replaced the whole fleet
+    void replaced(Iterable<Vehicle> vehicles){
+        lock.lock();
+        try{
+            long end = append(CLEAR, null, null);
+            for (Vehicle v : vehicles) end = append(ADD, v, null);
+            if (durableWrites) awaitDurable(end);
+        }
+        catch (IOException e){
+            // dropped, as in record
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    // the vehicle is encoded under the lock, so records of one vehicle are in the order of its changes
+    private void record(byte kind, Vehicle v, String id){
+        lock.lock();
+        try{
+            long end = append(kind, v, id);
+            if (durableWrites) awaitDurable(end);
+        }
+        catch (IOException e){
+            // latched, or the journal was closed under us
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    // caller holds the lock; returns the journal position just past the record
+    private long append(byte kind, Vehicle v, String id) throws IOException{
+        checkOpen();
+        boolean interrupted = false;
+        while (pending.remaining() < MAX_RECORD && failure == null){
+            try{
+                spaceFree.await();
+            }
+            catch (InterruptedException e){
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        checkOpen();
+        int start = pending.position();
+        pending.position(start + RECORD_HEADER);
+        pending.put(kind);
+        if (v != null){
+            if (!FleetSnapshotCodec.encode(v, pending)){
+                // a type the snapshot format cannot hold; reported once, when it joins the journal,
+                // its later changes would only repeat the same report
+                pending.position(start);
+                if (kind == ADD){
+                    Events.sink().recordSkipped("Not journaling vehicle " + v.getID() + ": type "
+                            + v.getClass().getSimpleName() + " has no journal encoding");
+                }
+                return appendedBytes;
+            }
+        }
+        else if (id != null){
+            FleetSnapshotCodec.putString(pending, id);
+        }
+        int end = pending.position();
+        int length = end - start - RECORD_HEADER;
+        ByteBuffer body = pending.duplicate();
+        body.position(start + RECORD_HEADER).limit(end);
+        crc.reset();
+        crc.update(body);
+        pending.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+        if (start == 0) hasWork.signal();
+        appendedBytes += end - start;
+        return appendedBytes;
+    }
+
+    private void awaitDurable(long position) throws IOException{
+        boolean interrupted = false;
+        while (durableBytes < position && failure == null){
+            try{
+                durable.await();
+            }
+            catch (InterruptedException e){
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (failure != null) throw failure;
+    }
+
+    private void checkOpen() throws IOException{
+        if (failure != null) throw failure;
+        if (closing) throw new IOException("Journal is closed");
+    }
+
+    private void writeLoop(){
+        // the compaction this round has taken over, failed along with the writer if it never gets to the compactor
+        CompletableFuture<Void> done = null;
+        try{
+            while (true){
+                ByteBuffer batch;
+                long target;
+                boolean roll;
+                lock.lock();
+                try{
+                    while (pending.position() == 0 && !rollRequested && !closing) hasWork.awaitUninterruptibly();
+                    if (pending.position() == 0 && !rollRequested) break;
+                    batch = pending;
+                    pending = spare;
+                    spare = null;
+                    target = appendedBytes;
+                    roll = rollRequested;
+                    done = requestedCompaction;
+                    rollRequested = false;
+                    requestedCompaction = null;
+                    spaceFree.signalAll();
+                }
+                finally{
+                    lock.unlock();
+                }
+
+                // one write and one fsync for everything appended since the last round
+                batch.flip();
+                segmentBytes += batch.remaining();
+                while (batch.hasRemaining()) segment.write(batch);
+                segment.force(false);
+                if (roll || segmentBytes >= compactionBytes){
+                    rollOver(done);
+                }
+                done = null;
+                batch.clear();
+
+                lock.lock();
+                try{
+                    spare = batch;
+                    durableBytes = target;
+                    durable.signalAll();
+                }
+                finally{
+                    lock.unlock();
+                }
+            }
+        }
+        catch (IOException e){
+            fail(e, done);
+        }
+        catch (RuntimeException e){
+            fail(new IOException("Journal writer failed", e), done);
+        }
+    }
+
+    // the writer is gone: wake everyone waiting on it and fail the compactions it will never run
+    private void fail(IOException e, CompletableFuture<Void> done){
+        CompletableFuture<Void> requested;
+        lock.lock();
+        try{
+            failure = e;
+            requested = requestedCompaction;
+            requestedCompaction = null;
+            spaceFree.signalAll();
+            durable.signalAll();
+        }
+        finally{
+            lock.unlock();
+        }
+        if (done != null) done.completeExceptionally(e);
+        if (requested != null) requested.completeExceptionally(e);
+    }
+
+    // writer thread: closes the current segment, starts the next one and hands the closed ones to the compactor
+    private void rollOver(CompletableFuture<Void> done) throws IOException{
+        segment.close();
+        long upTo = ++segmentNumber;
+        segment = createSegment(dir, upTo);
+        segmentBytes = 0;
+        CompletableFuture<Void> result = done != null ? done : new CompletableFuture<>();
+        compactor.execute(() -> {
+            try{
+                compactUpTo(dir, upTo);
+                result.complete(null);
+            }
+            catch (IOException | RuntimeException e){
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    // folds the newest snapshot and every segment before upTo into snapshot-upTo.bin, then deletes them
+    private static void compactUpTo(Path dir, long upTo) throws IOException{
+        long snapshot = -1;
+        for (Path p : list(dir)){
+            String name = p.getFileName().toString();
+            if (name.startsWith("snapshot-") && name.endsWith(".bin")) snapshot = Math.max(snapshot, number(name));
+        }
+        if (snapshot >= upTo) return;   // already folded by an earlier compaction
+
+        LinkedHashMap<String, Vehicle> state = new LinkedHashMap<>();
+        if (snapshot >= 0){
+            for (Vehicle v : FleetSnapshotCodec.read(snapshotPath(dir, snapshot))) state.put(v.getID(), v);
+        }
+        for (long n = Math.max(snapshot, 1); n < upTo; n++){
+            Path p = segmentPath(dir, n);
+            if (Files.exists(p)) replay(p, state, false);
+        }
+        // written through snapshot-N.bin.tmp, which open() clears away if a crash leaves it behind
+        FleetSnapshotCodec.write(snapshotPath(dir, upTo), state.values());
+        deleteBefore(dir, upTo, upTo);
+    }
+
+    // applies one segment's records to state; a bad record at the end of the last segment is a torn
+    // write and is cut off, anywhere else the journal is corrupt
+    private static void replay(Path file, LinkedHashMap<String, Vehicle> state, boolean last) throws IOException{
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC){
+            if (last && buf.limit() < HEADER_SIZE){
+                truncate(file, 0);
+                return;
+            }
+            throw new IOException("Not a fleet journal: " + file);
+        }
+        short version = buf.getShort();
+        if (version != VERSION){
+            throw new IOException("Unsupported journal version " + version + " in " + file);
+        }
+        CRC32 check = new CRC32();
+        while (buf.hasRemaining()){
+            int start = buf.position();
+            String problem = null;
+            if (buf.remaining() < RECORD_HEADER + 1){
+                problem = "truncated record";
+            }
+            else{
+                int length = buf.getInt();
+                int sum = buf.getInt();
+                if (length < 1 || length > buf.remaining()){
+                    problem = "truncated record";
+                }
+                else{
+                    ByteBuffer body = buf.slice();
+                    body.limit(length);
+                    check.reset();
+                    check.update(body.duplicate());
+                    if ((int) check.getValue() != sum){
+                        problem = "checksum mismatch";
+                    }
+                    else{
+                        apply(body, state, file, start);
+                        buf.position(buf.position() + length);
+                    }
+                }
+            }
+            if (problem != null){
+                if (!last) throw new IOException("Corrupt journal " + file + " at byte " + start + ": " + problem);
+                truncate(file, start);
+                return;
+            }
+        }
+    }
+
+    private static void apply(ByteBuffer body, LinkedHashMap<String, Vehicle> state, Path file, int at) throws IOException{
+        byte kind = body.get();
+        try{
+            switch (kind){
+                case ADD:
+                case UPDATE:{
+                    Vehicle v = FleetSnapshotCodec.decode(body);
+                    state.put(v.getID(), v);
+                    break;
+                }
+                case REMOVE:
+                    state.remove(FleetSnapshotCodec.getString(body));
+                    break;
+                case CLEAR:
+                    state.clear();
+                    break;
+                default:
+                    throw new IOException("Unknown journal record kind " + kind + " in " + file + " at byte " + at);
+            }
+        }
+        catch (InvalidOperationException | OverloadException | RuntimeException e){
+            throw new IOException("Corrupt journal record in " + file + " at byte " + at + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void truncate(Path file, long size) throws IOException{
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)){
+            ch.truncate(size);
+            ch.force(true);
+        }
+    }
+
+    private static FileChannel createSegment(Path dir, long n) throws IOException{
+        FileChannel ch = FileChannel.open(segmentPath(dir, n), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION);
+        header.flip();
+        while (header.hasRemaining()) ch.write(header);
+        ch.force(true);
+        return ch;
+    }
+
+    // removes segments before first and snapshots other than keep
+    private static void deleteBefore(Path dir, long first, long keep) throws IOException{
+        for (Path p : list(dir)){
+            String name = p.getFileName().toString();
+            if (name.endsWith(".tmp")) continue;
+            long n = number(name);
+            if ((name.startsWith("journal-") && n < first) || (name.startsWith("snapshot-") && n != keep)){
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static List<Path> list(Path dir) throws IOException{
+        List<Path> out = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "{journal-*.log,snapshot-*.bin,snapshot-*.bin.tmp}")){
+            for (Path p : files) out.add(p);
+        }
+        return out;
+    }
+
+    private static long number(String name){
+        int dash = name.indexOf('-');
+        int dot = name.indexOf('.');
+        try{
+            return Long.parseLong(name.substring(dash + 1, dot));
+        }
+        catch (NumberFormatException | IndexOutOfBoundsException e){
+            return -1;
+        }
+    }
+
+    static Path segmentPath(Path dir, long n){
+        return dir.resolve(String.format("journal-%08d.log", n));
+    }
+
+    static Path snapshotPath(Path dir, long n){
+        return dir.resolve(String.format("snapshot-%08d.bin", n));
+    }
+}
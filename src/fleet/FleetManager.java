@@ -2,168 +2,609 @@ package fleet;
 
 import java.util.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import vehicles.*;
 import interfaces.*;
 import exceptions.*;
+import events.Events;
 
 public class FleetManager{
 
-    private final List<Vehicle> fleet;
+    //id -> int slot -> entry, in insertion (fleet) order, see FleetTable
+    private final FleetTable fleet = new FleetTable();
+
+    //the vehicles of the fleet, in fleet order
+    private final Collection<Vehicle> vehicles = new AbstractCollection<Vehicle>(){
+        @Override
+        public Iterator<Vehicle> iterator(){
+            Iterator<FleetEntry> it = fleet.iterator();
+            return new Iterator<Vehicle>(){
+                public boolean hasNext(){ return it.hasNext(); }
+                public Vehicle next(){ return it.next().vehicle; }
+            };
+        }
+
+        @Override
+        public int size(){
+            return fleet.size();
+        }
+    };
 
-    //set to maintain distinct model names
-    private Set<String> modelSet = new HashSet<>();
+    //model code -> number of vehicles using it, and the distinct model names in sorted order
+    private final FleetModels models = new FleetModels();
 
-    public FleetManager(){
-        this.fleet = new ArrayList<>();
+    //report aggregates, maintained on every add/remove/change
+    private final FleetStats stats = new FleetStats();
+
+    //ordered indexes behind the sorted views and fastest/slowest
+    private final FleetIndexes indexes = new FleetIndexes();
+    //concrete class and capability buckets behind searchByType and the interface-filtered bulk operations
+    private final FleetBuckets buckets = new FleetBuckets();
+
+    //guards the indexes against change notifications coming from parallel journeys
+    private final Object indexLock = new Object();
+    private long nextSeq;
+    private boolean reportConsistencyCheck;
+
+    private final FleetMetrics metrics = new FleetMetrics();
 
+    //changed and removed since the last CSV save, what saveDelta writes; both guarded by indexLock
+    private final List<FleetEntry> dirtyEntries = new ArrayList<>();
+    private final Set<String> removedSinceSave = new HashSet<>();
+
+    //write-ahead journal of every mutation, null when not journaling
+    private volatile FleetJournal journal;
+
+    public FleetManager(){
     }
 
     public void addVehicle(Vehicle v)throws InvalidOperationException{
+        long start = metrics.start();
         Objects.requireNonNull(v, "Vehicle cannot be null");
         String id = v.getID();
-        boolean exists = fleet.stream().anyMatch(x -> x.getID().equals(id));
-        if (exists){
+        if (fleet.slotOf(id) >= 0){
             throw new InvalidOperationException("Duplicate vehicle id: " + id);
         }
-        fleet.add(v);
-
-        String model = v.getModel();
-        boolean added = modelSet.add(model);
-        if (!added) {
+        if (v.hasListener()){
+            // its changes would stop reaching the fleet it is in now
+            throw new InvalidOperationException("Vehicle " + id + " already belongs to another fleet, remove it there first");
+        }
+        int count = register(v);
+        FleetJournal j = journal;
+        if (j != null) j.added(v);
+        if (count > 1) {
             // model already existed, letting user know
-            System.out.println("Note: model already present in fleet: " + model);
+            Events.sink().duplicateModel(v.getModel());
         }
+        metrics.count(FleetMetrics.Counter.VEHICLES_ADDED, 1);
+        metrics.stop(FleetMetrics.Op.ADD, start);
     }
 
 
     public void removeVehicle(String id) throws InvalidOperationException{
+        long start = metrics.start();
+        FleetEntry e = fleet.remove(id);
+        if (e == null){
+            throw new InvalidOperationException("Vehicle not found: " + id);
+        }
+        finishRemove(e, start);
+    }
 
-        Iterator<Vehicle> it = fleet.iterator();
-        while (it.hasNext()){
-            Vehicle v = it.next();
-            if (v.getID().equals(id)){
-                String removedModel = v.getModel();
-                it.remove();
-
-                // If no other vehicle uses this model, remove it from modelSet
-                boolean stillUsed = fleet.stream().anyMatch(x -> removedModel.equals(x.getModel()));
-                if (!stillUsed){
-                    modelSet.remove(removedModel);
-                    }
-                return;
-                }
+    public void removeVehicle(long handle) throws InvalidOperationException{
+        long start = metrics.start();
+        FleetEntry e = fleet.remove(handle);
+        if (e == null){
+            throw new InvalidOperationException("No vehicle with handle " + handle);
+        }
+        finishRemove(e, start);
+    }
+
+    private void finishRemove(FleetEntry e, long start){
+        unregister(e);
+        FleetJournal j = journal;
+        if (j != null) j.removed(e.vehicle.getID());
+        metrics.count(FleetMetrics.Counter.VEHICLES_REMOVED, 1);
+        metrics.stop(FleetMetrics.Op.REMOVE, start);
+    }
+
+    // adds v to every index, returns how many vehicles now use its model
+    private int register(Vehicle v){
+        FleetEntry e = fleet.add(v, nextSeq++);
+        // bound to the entry, so a change notification needs no ID lookup
+        v.setListener(changed -> onVehicleChanged(e));
+        stats.add(e);
+        indexes.add(e);
+        buckets.add(e);
+        markDirty(e);
+        return models.add(v);
+    }
+
+    // e has already been taken out of the fleet table
+    private void unregister(FleetEntry e){
+        Vehicle v = e.vehicle;
+        v.setListener(null);
+        stats.remove(e);
+        indexes.remove(e);
+        buckets.remove(e);
+        synchronized (indexLock){
+            removedSinceSave.add(v.getID());
+        }
+        models.remove(v);
+    }
+
+    private void clearFleet(){
+        synchronized (indexLock){
+            for (Vehicle v : vehicles){
+                v.setListener(null);
+                removedSinceSave.add(v.getID());
             }
-            modelSet.removeIf(model -> fleet.stream().noneMatch(v -> v.getModel().equals(model)));
+        }
+        fleet.clear();
+        models.clear();
+        stats.clear();
+        indexes.clear();
+        buckets.clear();
+    }
 
-        throw new InvalidOperationException("Vehicle not found: " + id);
+    private void onVehicleChanged(FleetEntry e){
+        Vehicle v = e.vehicle;
+        if (fleet.get(e.slot) != e) return;
+        synchronized (indexLock){
+            stats.removeState(e);
+            int detached = indexes.detachChanged(e);
+            e.capture();
+            indexes.reattach(e, detached);
+            stats.addState(e);
+            markDirty(e);
         }
+        FleetJournal j = journal;
+        if (j != null) j.changed(v);
+    }
+
+    private void markDirty(FleetEntry e){
+        synchronized (indexLock){
+            if (!e.dirty){
+                e.dirty = true;
+                dirtyEntries.add(e);
+            }
+        }
+    }
+
+    // the fleet matches the last CSV read
+    private void markClean(){
+        takeChanges();
+    }
+
+    // what is pending now, taken out of the dirty set before a save writes it: a vehicle that
+    // changes while the file is being written is marked again and goes into the next save
+    private PendingChanges takeChanges(){
+        synchronized (indexLock){
+            PendingChanges taken = new PendingChanges(new ArrayList<>(dirtyEntries), new ArrayList<>(removedSinceSave));
+            for (FleetEntry e : dirtyEntries) e.dirty = false;
+            dirtyEntries.clear();
+            removedSinceSave.clear();
+            return taken;
+        }
+    }
+
+    // a save failed: its changes are pending again, ahead of the ones marked while it ran
+    private void restoreChanges(PendingChanges taken){
+        synchronized (indexLock){
+            List<FleetEntry> since = new ArrayList<>(dirtyEntries);
+            dirtyEntries.clear();
+            for (FleetEntry e : taken.changed){
+                // already dirty again: changed while the save ran, it is in since
+                if (e.dirty || fleet.get(e.slot) != e) continue;
+                e.dirty = true;
+                dirtyEntries.add(e);
+            }
+            dirtyEntries.addAll(since);
+            removedSinceSave.addAll(taken.removed);
+        }
+    }
 
+    private static final class PendingChanges{
+        final List<FleetEntry> changed;
+        final List<String> removed;
+
+        PendingChanges(List<FleetEntry> changed, List<String> removed){
+            this.changed = changed;
+            this.removed = removed;
+        }
+    }
+
+    // counters and latency histograms, disabled until getMetrics().enable()
+    public FleetMetrics getMetrics(){
+        return metrics;
+    }
+
+    // Makes the fleet durable in dir: the newest snapshot there is loaded and the journal after it
+    // replayed, replacing the current fleet; a new directory starts from the current fleet instead.
+    // From then on every add, remove and vehicle change is appended to the journal (see FleetJournal).
+    public FleetJournal openJournal(String dir) throws IOException{
+        closeJournal();
+        FleetJournal.Recovered recovered = FleetJournal.open(Paths.get(dir));
+        if (recovered.existed){
+            replaceFleet(recovered.vehicles);
+        }
+        else{
+            recovered.journal.replaced(vehicles);
+        }
+        journal = recovered.journal;
+        return recovered.journal;
+    }
+
+    // stops journaling, after writing out everything appended so far
+    public void closeJournal() throws IOException{
+        FleetJournal j = journal;
+        if (j == null) return;
+        journal = null;
+        j.close();
+    }
+
+    public FleetJournal getJournal(){
+        return journal;
+    }
+
+    public Vehicle getVehicleById(String id){
+        FleetEntry e = fleet.get(id);
+        return e == null ? null : e.vehicle;
+    }
+
+    // Handle of a registered vehicle, -1 for an unknown ID. Resolve IDs once and use the handle
+    // overloads in hot loops: no String hashing per call. A handle is valid until its vehicle is
+    // removed (or the fleet is loaded over); after that it never resolves again, not even to a
+    // vehicle added later in the same slot.
+    public long getHandle(String id){
+        FleetEntry e = fleet.get(id);
+        return e == null ? -1 : fleet.handleOf(e);
+    }
+
+    // handles of the whole fleet, in fleet order
+    public long[] getHandles(){
+        return fleet.handles();
+    }
+
+    // null when no vehicle has this handle any more
+    public Vehicle getVehicle(long handle){
+        FleetEntry e = fleet.byHandle(handle);
+        return e == null ? null : e.vehicle;
+    }
+
+    // Alphabetically ordered, read-only and live: it follows later adds and removes, without a copy
+    // per call. Like any TreeSet view, iterating it while vehicles are added or removed throws
+    // ConcurrentModificationException; copy it first (new TreeSet<>(...)) to change the fleet in the loop.
     public Set<String> getDistinctModels(){
-        // Return an alphabetically ordered view using tree set
-        return new TreeSet<>(modelSet);
+        return models.names();
+    }
+
+    // how many vehicles in the fleet use this model
+    public int getModelCount(String model){
+        return models.count(ModelCatalog.find(model));
     }
 
 
+    //parallel mode: journeys and fuel consumption are dispatched over this pool, null means sequential
+    private ForkJoinPool journeyPool;
+    private boolean ownsJourneyPool;
+
+    //below this size the fork/join overhead is bigger than the work itself
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    public void enableParallelMode(int parallelism){
+        if (parallelism < 1){
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        disableParallelMode();
+        journeyPool = new ForkJoinPool(parallelism);
+        ownsJourneyPool = true;
+    }
+
+    public void enableParallelMode(ForkJoinPool pool){
+        Objects.requireNonNull(pool, "Pool cannot be null");
+        disableParallelMode();
+        journeyPool = pool;
+        ownsJourneyPool = false;
+    }
+
+    public void disableParallelMode(){
+        if (journeyPool != null && ownsJourneyPool){
+            journeyPool.shutdown();
+        }
+        journeyPool = null;
+        ownsJourneyPool = false;
+    }
+
+    public boolean isParallelMode(){
+        return journeyPool != null;
+    }
+
+    // runs task for every index in [0, n), on the journey pool when parallel mode is on
+    private void forEachIndex(int n, IntConsumer task){
+        if (journeyPool == null || n < PARALLEL_THRESHOLD){
+            for (int i = 0; i < n; i++) task.accept(i);
+            return;
+        }
+        journeyPool.submit(() -> IntStream.range(0, n).parallel().forEach(task)).join();
+    }
+
     public Map<String, String> startAllJourneys(double distance){
+        long start = metrics.start();
+        FleetJfrEvents.Journeys event = new FleetJfrEvents.Journeys();
+        event.begin();
+        Vehicle[] vehicles = this.vehicles.toArray(new Vehicle[0]);
+        JourneyBatch batch = new JourneyBatch(vehicles.length, true);
+        batch.reset(vehicles.length);
+        forEachIndex(vehicles.length, i -> runJourney(vehicles[i], distance, batch, i));
+
+        // results are always collected in fleet order, whatever order the journeys finished in
         Map<String, String> result=new LinkedHashMap<>();
-        for (Vehicle v:fleet){
-            try{
-                v.move(distance);
-                result.put(v.getID(), "Ok");
-            } 
-            catch(InvalidOperationException | InsufficientFuelException e){
-                result.put(v.getID(), "failed: " + e.getMessage());
-            } 
-            catch (Exception e){
-                result.put(v.getID(), "unexpected fail: " + e.getMessage());
-            }
+        for (int i = 0; i < vehicles.length; i++){
+            result.put(vehicles[i].getID(), statusText(batch, i));
         }
+        finishJourneys(FleetMetrics.Op.START_ALL_JOURNEYS, "startAllJourneys", batch, start, event);
         return result;
     }
 
+    private static String statusText(JourneyBatch batch, int i){
+        switch (batch.getStatus(i)){
+            case JourneyBatch.OK: return "Ok";
+            case JourneyBatch.UNEXPECTED: return "unexpected fail: " + batch.getDetail(i);
+            default: return "failed: " + batch.getDetail(i);
+        }
+    }
+
+    // one dispatch wave: ids[i] travels distances[i]. Journeys run like startAllJourneys (in parallel
+    // when parallel mode is on) but results go into primitive arrays instead of a map of strings.
+    public JourneyBatch runJourneys(String[] ids, double[] distances){
+        return runJourneys(ids, distances, new JourneyBatch(ids.length, false));
+    }
+
+    public JourneyBatch runJourneys(String[] ids, double[] distances, JourneyBatch out){
+        if (ids.length != distances.length){
+            throw new IllegalArgumentException("Got " + ids.length + " vehicle ids but " + distances.length + " distances");
+        }
+        long start = metrics.start();
+        FleetJfrEvents.Journeys event = new FleetJfrEvents.Journeys();
+        event.begin();
+        out.reset(ids.length);
+        forEachIndex(ids.length, i -> {
+            FleetEntry e = fleet.get(ids[i]);
+            runJourney(e == null ? null : e.vehicle, distances[i], out, i);
+        });
+        finishJourneys(FleetMetrics.Op.RUN_JOURNEYS, "runJourneys", out, start, event);
+        return out;
+    }
+
+    // same wave by handle; a handle with no vehicle (removed since) is NOT_FOUND
+    public JourneyBatch runJourneys(long[] handles, double[] distances, JourneyBatch out){
+        if (handles.length != distances.length){
+            throw new IllegalArgumentException("Got " + handles.length + " vehicle handles but " + distances.length + " distances");
+        }
+        long start = metrics.start();
+        FleetJfrEvents.Journeys event = new FleetJfrEvents.Journeys();
+        event.begin();
+        out.reset(handles.length);
+        forEachIndex(handles.length, i -> {
+            FleetEntry e = fleet.byHandle(handles[i]);
+            runJourney(e == null ? null : e.vehicle, distances[i], out, i);
+        });
+        finishJourneys(FleetMetrics.Op.RUN_JOURNEYS, "runJourneys", out, start, event);
+        return out;
+    }
+
+    // tryMove instead of move: in low-fuel runs most journeys fail, and throwing for each of them costs
+    // more than the journeys themselves
+    private static void runJourney(Vehicle v, double distance, JourneyBatch out, int i){
+        if (v == null){
+            out.set(i, JourneyBatch.NOT_FOUND, 0.0, "Vehicle not found");
+            return;
+        }
+        // what move() will burn, taken before the move changes the vehicle; 0 for sail-powered ships
+        double eff = v.calculateFuelEfficiency();
+        try{
+            byte outcome = v.tryMove(distance);
+            if (outcome == Outcome.OK){
+                out.set(i, JourneyBatch.OK, eff > 0 ? distance / eff : 0.0, null);
+            }
+            else{
+                out.set(i, outcome, 0.0, out.isRecordingDetails() ? v.moveFailure(outcome, distance) : null);
+            }
+        }
+        catch (Exception ex){
+            out.set(i, JourneyBatch.UNEXPECTED, 0.0, ex.getMessage());
+        }
+    }
+
+    private void finishJourneys(FleetMetrics.Op op, String name, JourneyBatch batch, long start, FleetJfrEvents.Journeys event){
+        event.end();
+        metrics.journeys(batch);
+        metrics.stop(op, start);
+        if (event.shouldCommit()){
+            int failed = batch.failureCount();
+            event.operation = name;
+            event.vehicles = batch.size();
+            event.succeeded = batch.size() - failed;
+            event.failed = failed;
+            event.fuelUsed = batch.totalFuelUsed();
+            event.commit();
+        }
+    }
+
     public double consumeFuelForAll(double distance) {
+        // a negative distance would refill every tank; IllegalArgumentException up front, before any tank is touched,
+        // instead of a per-vehicle skip
+        FuelConsumable.checkDistance(distance);
+        long start = metrics.start();
+        Vehicle[] vehicles = buckets.withCapability(FuelConsumable.class);
+        double[] used = new double[vehicles.length];
+        boolean[] skipped = new boolean[vehicles.length];
+        forEachIndex(vehicles.length, i -> {
+            FuelConsumable fuel_consum= (FuelConsumable) vehicles[i];
+            double fuel = fuel_consum.tryConsumeFuel(distance);
+            if (Double.isNaN(fuel)){
+                skipped[i] = true;
+            }
+            else{
+                used[i] = fuel;
+            }
+        });
+
+        // summing in fleet order keeps the total identical between sequential and parallel runs
         double tot=0.0;
-        for (Vehicle v:fleet){
-            if (v instanceof FuelConsumable){
-                FuelConsumable fuel_consum= (FuelConsumable) v;
-                try{
-                    double used = fuel_consum.consumeFuel(distance);
-                    tot += used;
-                } 
-                catch (InsufficientFuelException e){
-                    System.out.println("Vehicle " + v.getID() + " skipped: " + e.getMessage());
-                }
+        int skippedCount = 0;
+        for (int i = 0; i < vehicles.length; i++){
+            if (skipped[i]){
+                Events.sink().vehicleSkipped(vehicles[i].getID(), ((FuelConsumable) vehicles[i]).fuelFailure(distance));
+                skippedCount++;
             }
+            tot += used[i];
         }
+        metrics.fuel(tot);
+        metrics.count(FleetMetrics.Counter.FUEL_RUNS_SKIPPED, skippedCount);
+        metrics.stop(FleetMetrics.Op.CONSUME_FUEL, start);
         return tot;
     }
 
     public void displayFleet() {
-        if (fleet.isEmpty()) {
+        if (fleet.size() == 0) {
             System.out.println("No vehicles in the fleet.");
             return;
         }
 
         System.out.println("\nCurrent Fleet:");
         System.out.println("------------------------------------------------");
-        for (Vehicle v : fleet) {
+        for (Vehicle v : vehicles) {
             v.displayInfo();
             System.out.println("------------------------------------------------");
         }
     }
 
 
+    // only the vehicles in the maintenance queue are visited; servicing one notifies the manager,
+    // so the queue is copied first
     public void maintainAll(){
-        for (Vehicle v:fleet){
-            if (v instanceof Maintainable){
-                Maintainable m=(Maintainable)v;
-                if (m.needsMaintenance()){
-                    m.performMaintenance();
-                }
+        long start = metrics.start();
+        int done = 0;
+        for (Vehicle v:FleetIndexes.list(indexes.dueForMaintenance)){
+            Maintainable m=(Maintainable)v;
+            if (m.needsMaintenance()){
+                m.performMaintenance();
+                done++;
             }
         }
+        metrics.count(FleetMetrics.Counter.MAINTENANCE_DONE, done);
+        metrics.stop(FleetMetrics.Op.MAINTAIN_ALL, start);
     }
 
     public List<Vehicle> searchByType(Class<?> type){
-        List<Vehicle> ans=new ArrayList<>();
-        for (Vehicle v:fleet){
-            if (type.isInstance(v)) ans.add(v);
-        }
-        return ans;
+        return buckets.find(type);
     }
 
 
+    // the sorted views are read off the maintained indexes, no copy-and-sort of the fleet
     public List<Vehicle> getFleetSortedBySpeed() {
-        List<Vehicle> sorted = new ArrayList<>(fleet);
-        Comparator<Vehicle> cmp = Comparator.comparingDouble(Vehicle::getMaxSpeed);
-        cmp = cmp.reversed();
-        sorted.sort(cmp);
-        return sorted;
+        return FleetIndexes.list(indexes.bySpeed);
     }
 
     public List<Vehicle> getFleetSortedByModel(){
-        List<Vehicle> sorted = new ArrayList<>(fleet);
-        Comparator<Vehicle> cmp = (a,b) -> a.getModel().compareToIgnoreCase(b.getModel());
-        sorted.sort(cmp);
-        return sorted;
+        return FleetIndexes.list(indexes.byModel);
 
     }
     public List<Vehicle> getFleetSortedByEfficiency(){
-        List<Vehicle> sorted = new ArrayList<>(fleet);
-        Comparator<Vehicle> cmp = Comparator.comparingDouble(Vehicle::calculateFuelEfficiency);
-        cmp  = cmp.reversed();
-        sorted.sort(cmp);
-        return sorted;
+        return FleetIndexes.list(indexes.byEfficiency);
+    }
+
+    //paged views: offset/limit into the same orderings, cost O(offset + limit)
+    public List<Vehicle> getFleetPageBySpeed(int offset, int limit){
+        return FleetIndexes.page(indexes.bySpeed, offset, limit);
+    }
+
+    public List<Vehicle> getFleetPageByModel(int offset, int limit){
+        return FleetIndexes.page(indexes.byModel, offset, limit);
+    }
+
+    public List<Vehicle> getFleetPageByEfficiency(int offset, int limit){
+        return FleetIndexes.page(indexes.byEfficiency, offset, limit);
+    }
+
+    //range queries, both bounds inclusive, cost O(log n + matches) once the indexes are current.
+    //Use Double.NEGATIVE_INFINITY / POSITIVE_INFINITY for an open end.
+
+    // lowest mileage first
+    public List<Vehicle> getVehiclesByMileage(double min, double max){
+        synchronized (indexLock){
+            return indexes.byMileage.range(min, max);
+        }
+    }
+
+    // FuelConsumable vehicles only, lowest fuel level first
+    public List<Vehicle> getVehiclesByFuelLevel(double min, double max){
+        synchronized (indexLock){
+            return indexes.byFuel.range(min, max);
+        }
+    }
+
+    // fastest first, like getFleetSortedBySpeed
+    public List<Vehicle> getVehiclesBySpeed(double min, double max){
+        return indexes.speedRange(min, max);
+    }
+
+    //journey feasibility: the vehicles whose current fuel covers distance km (sailing cargo ships
+    //always do), found without moving or refueling anything. Shortest reach first, cost
+    //O(log n + matches) once the index is current.
+    public List<Vehicle> getVehiclesAbleToTravel(double distance){
+        return getVehiclesAbleToTravel(distance, null);
+    }
+
+    // type: a vehicle class or capability interface, null for any
+    public List<Vehicle> getVehiclesAbleToTravel(double distance, Class<?> type){
+        synchronized (indexLock){
+            return indexes.reach.able(distance, type, null);
+        }
+    }
+
+    // passenger carriers with at least seats free seats
+    public List<Vehicle> getPassengerCarriersAbleToTravel(double distance, int seats){
+        synchronized (indexLock){
+            return indexes.reach.able(distance, PassengerCarrier.class, v -> {
+                PassengerCarrier p = (PassengerCarrier) v;
+                return p.getPassengerCapacity() - p.getCurrentPassengers() >= seats;
+            });
+        }
+    }
+
+    // cargo carriers with room for at least weight more cargo
+    public List<Vehicle> getCargoCarriersAbleToTravel(double distance, double weight){
+        synchronized (indexLock){
+            return indexes.reach.able(distance, CargoCarrier.class, v -> {
+                CargoCarrier c = (CargoCarrier) v;
+                return c.getCargoCapacity() - c.getCurrentCargo() >= weight;
+            });
+        }
+    }
+
+    public List<Vehicle> getTopBySpeed(int k){
+        return getFleetPageBySpeed(0, k);
     }
+
+    public List<Vehicle> getTopByEfficiency(int k){
+        return getFleetPageByEfficiency(0, k);
+    }
+
     public Vehicle getFastestVehicle(){
-        if(fleet.isEmpty()) return null;
-        return Collections.max(fleet,Comparator.comparingDouble(Vehicle::getMaxSpeed));
+        return indexes.fastest();
 
     }
     public Vehicle getSlowestVehicle(){
-        if(fleet.isEmpty()) return null;
-        return Collections.min(fleet,Comparator.comparingDouble(Vehicle::getMaxSpeed));
+        return indexes.slowest();
         
     }
 
@@ -171,193 +612,380 @@ public class FleetManager{
 
 
     public String generateReport(){
+        Map<String,Integer> byType = stats.countByType();
+        double avgEff = stats.averageEfficiency();
+        double totalMileage = stats.totalMileage();
+        int maintenanceCount = stats.maintenanceCount();
+        if (reportConsistencyCheck){
+            checkReportConsistency();
+        }
+        return formatReport(fleet.size(), byType, totalMileage, avgEff, maintenanceCount);
+    }
+
+    // avgEff is NaN when no vehicle has a positive efficiency
+    static String formatReport(int total, Map<String,Integer> byType, double totalMileage, double avgEff, int maintenanceCount){
         StringBuilder str_bldr = new StringBuilder();
         str_bldr.append("Fleet report\n------------\n");
-        str_bldr.append("Total vehicles: ").append(fleet.size()).append("\n");
+        str_bldr.append("Total vehicles: ").append(total).append("\n");
 
+        str_bldr.append("By type:\n");
+        byType.forEach((k,c)-> str_bldr.append("  ").append(k).append(": ").append(c).append("\n"));
+        str_bldr.append("Total mileage: ").append(totalMileage).append(" km\n");
+        str_bldr.append("Avg fuel efficiency: ");
+        str_bldr.append(!Double.isNaN(avgEff) ? String.format("%.2f km/l", avgEff) : "N/A").append("\n");
+        str_bldr.append("Vehicles needing maintenance: ").append(maintenanceCount).append("\n");
+
+        return str_bldr.toString();
+    }
+
+    //when on, every generateReport also rescans the fleet and fails if the maintained aggregates disagree
+    public void setReportConsistencyCheck(boolean enabled){
+        this.reportConsistencyCheck = enabled;
+    }
+
+    public void checkReportConsistency(){
         Map<String,Integer> byType=new TreeMap<>();
         double totalEff=0;
         int effCount=0;
         double totalMileage=0;
         int maintenanceCount=0;
 
-        for (Vehicle v:fleet){
+        for (Vehicle v:vehicles){
             byType.merge(v.getClass().getSimpleName(), 1, Integer::sum);
             double eff=v.calculateFuelEfficiency();
             if (eff>0) { totalEff += eff; effCount++; }
             totalMileage += v.getCurrentMileage();
             if (v instanceof Maintainable && ((Maintainable) v).needsMaintenance()) maintenanceCount++;
         }
+        double avgEff = effCount>0 ? totalEff / effCount : Double.NaN;
+
+        List<String> problems = new ArrayList<>();
+        if (!byType.equals(stats.countByType())) problems.add("by type " + stats.countByType() + " vs scan " + byType);
+        if (!closeEnough(totalMileage, stats.totalMileage())) problems.add("total mileage " + stats.totalMileage() + " vs scan " + totalMileage);
+        if (!closeEnough(avgEff, stats.averageEfficiency())) problems.add("avg efficiency " + stats.averageEfficiency() + " vs scan " + avgEff);
+        if (maintenanceCount != stats.maintenanceCount()) problems.add("maintenance count " + stats.maintenanceCount() + " vs scan " + maintenanceCount);
+        if (!problems.isEmpty()){
+            throw new IllegalStateException("Report aggregates out of sync: " + String.join("; ", problems));
+        }
+    }
 
-        str_bldr.append("By type:\n");
-        byType.forEach((k,c)-> str_bldr.append("  ").append(k).append(": ").append(c).append("\n"));
-        str_bldr.append("Total mileage: ").append(totalMileage).append(" km\n");
-        str_bldr.append("Avg fuel efficiency: ");
-        str_bldr.append(effCount>0 ? String.format("%.2f km/l", totalEff / effCount) : "N/A").append("\n");
-        str_bldr.append("Vehicles needing maintenance: ").append(maintenanceCount).append("\n");
+    // the scan and the maintained sums add the same values in different orders
+    private static boolean closeEnough(double a, double b){
+        if (Double.isNaN(a) || Double.isNaN(b)) return Double.isNaN(a) && Double.isNaN(b);
+        return Math.abs(a - b) <= 1e-9 * Math.max(1.0, Math.max(Math.abs(a), Math.abs(b)));
+    }
 
-        return str_bldr.toString();
+    public double getTotalFuelLevel(){
+        double total = 0;
+        for (Vehicle v : vehicles){
+            if (v instanceof FuelConsumable) total += ((FuelConsumable) v).getFuelLevel();
+        }
+        return total;
     }
 
-    public List<Vehicle> getVehiclesNeedingMaintenance(){
-        List<Vehicle> output=new ArrayList<>();
-        for (Vehicle v:fleet){
-            if (v instanceof Maintainable && ((Maintainable) v).needsMaintenance()){
-                output.add(v);
-            }
+    public double getTotalCargoLoad(){
+        double total = 0;
+        for (Vehicle v : vehicles){
+            if (v instanceof CargoCarrier) total += ((CargoCarrier) v).getCurrentCargo();
+        }
+        return total;
+    }
+
+    public long getTotalPassengersOnBoard(){
+        long total = 0;
+        for (Vehicle v : vehicles){
+            if (v instanceof PassengerCarrier) total += ((PassengerCarrier) v).getCurrentPassengers();
         }
-        return output;
+        return total;
+    }
+
+    // most overdue first, read from the maintenance queue
+    public List<Vehicle> getVehiclesNeedingMaintenance(){
+        return FleetIndexes.list(indexes.dueForMaintenance);
     }
 
     public void saveToFile(String filename) throws IOException{
-        try (PrintWriter prnt_writer = new PrintWriter(new FileWriter(filename))){
-                for (Vehicle v:fleet){
-                    if (v instanceof Car){
-                        Car c=(Car) v;
-                        prnt_writer.printf("Car,%s,%s,%.2f,%.2f,%d,%.2f,%d,%d%n",
-                                c.getID(), c.getModel(), c.getMaxSpeed(), c.getCurrentMileage(),
-                                c.getNumWheels(), c.getFuelLevel(), 
-                                c.getPassengerCapacity(), c.getCurrentPassengers());
-                    } 
-                    else if (v instanceof Truck){
-                        Truck t=(Truck)v;
-                        prnt_writer.printf("Truck,%s,%s,%.2f,%.2f,%d,%.2f,%.2f,%.2f%n",
-                                t.getID(), t.getModel(), t.getMaxSpeed(), t.getCurrentMileage(),
-                                t.getNumWheels(), t.getFuelLevel(),
-                                t.getCargoCapacity(), t.getCurrentCargo());
-                    } 
-                    else if (v instanceof Bus){
-                        Bus b=(Bus)v;
-                        prnt_writer.printf("Bus,%s,%s,%.2f,%.2f,%d,%.2f,%d,%d,%.2f,%.2f%n",
-                                b.getID(), b.getModel(), b.getMaxSpeed(), b.getCurrentMileage(),
-                                b.getNumWheels(), b.getFuelLevel(),
-                                b.getPassengerCapacity(), b.getCurrentPassengers(),
-                                b.getCargoCapacity(), b.getCurrentCargo());
-                    }
-                    else if (v instanceof Airplane){
-                        Airplane a = (Airplane) v;
-                        prnt_writer.printf("Airplane,%s,%s,%.2f,%.2f,%.2f,%.2f,%d,%d,%.2f,%.2f%n",
-                                a.getID(), a.getModel(), a.getMaxSpeed(), a.getCurrentMileage(),
-                                a.getMaxAltitude(), a.getFuelLevel(),
-                                a.getPassengerCapacity(), a.getCurrentPassengers(),
-                                a.getCargoCapacity(), a.getCurrentCargo());
-                    } 
-                    else if (v instanceof CargoShip){
-                        CargoShip cs=(CargoShip) v;
-                        prnt_writer.printf("CargoShip,%s,%s,%.2f,%.2f,%b,%.2f,%.2f,%.2f%n",
-                                cs.getID(), cs.getModel(), cs.getMaxSpeed(), cs.getCurrentMileage(),
-                                cs.hasSail(), cs.getFuelLevel(),
-                                cs.getCargoCapacity(), cs.getCurrentCargo());
-                    }
+        long start = metrics.start();
+        FleetJfrEvents.FileIo event = new FleetJfrEvents.FileIo();
+        event.begin();
+        PendingChanges taken = takeChanges();
+        boolean saved = false;
+        try{
+            writeCsv(filename);
+            saved = true;
+        }
+        finally{
+            if (!saved) restoreChanges(taken);
+        }
+        metrics.count(FleetMetrics.Counter.VEHICLES_SAVED, fleet.size());
+        finishFileIo(FleetMetrics.Op.SAVE, "saveToFile", filename, fleet.size(), 0, start, event);
+    }
+
+    private void writeCsv(String filename) throws IOException{
+        try (PrintWriter prnt_writer = csvWriter(filename)){
+                for (Vehicle v:vehicles){
+                    writeCsvLine(prnt_writer, v);
+                }
+                // PrintWriter swallows IOExceptions; a save that did not reach the file must not count as saved
+                if (prnt_writer.checkError()){
+                    throw new IOException("Failed writing " + filename);
                 }
             }
         }
 
-    public void loadFromFile(String filename) throws IOException{
-        List<Vehicle> load1=new ArrayList<>();
-        try (BufferedReader br=new BufferedReader(new FileReader(filename))){
-            String line;
-            int lineNo=0;
-            while ((line = br.readLine())!=null){
-                lineNo++;
-                if (line.trim().isEmpty()) continue;
-                String[] tokens=splitCsvLine(line);
-                try{
-                    Vehicle v=VehicleFactory.createVehicle(tokens);
-                    load1.add(v);
-                } 
-                catch(Exception e){
-                    System.out.println("Skipping line " + lineNo + ": " + e.getMessage());
-                }
+    // always UTF-8, the charset CsvFleetLoader and CsvDeltaFiles read, whatever the platform default is
+    private static PrintWriter csvWriter(String filename) throws IOException{
+        return new PrintWriter(Files.newBufferedWriter(Paths.get(filename), StandardCharsets.UTF_8));
+    }
+
+    private static void writeCsvLine(PrintWriter out, Vehicle v){
+        if (v instanceof Car){
+            Car c=(Car) v;
+            out.printf("Car,%s,%s,%.2f,%.2f,%d,%.2f,%d,%d%n",
+                    c.getID(), c.getModel(), c.getMaxSpeed(), c.getCurrentMileage(),
+                    c.getNumWheels(), c.getFuelLevel(), 
+                    c.getPassengerCapacity(), c.getCurrentPassengers());
+        } 
+        else if (v instanceof Truck){
+            Truck t=(Truck)v;
+            out.printf("Truck,%s,%s,%.2f,%.2f,%d,%.2f,%.2f,%.2f%n",
+                    t.getID(), t.getModel(), t.getMaxSpeed(), t.getCurrentMileage(),
+                    t.getNumWheels(), t.getFuelLevel(),
+                    t.getCargoCapacity(), t.getCurrentCargo());
+        } 
+        else if (v instanceof Bus){
+            Bus b=(Bus)v;
+            out.printf("Bus,%s,%s,%.2f,%.2f,%d,%.2f,%d,%d,%.2f,%.2f%n",
+                    b.getID(), b.getModel(), b.getMaxSpeed(), b.getCurrentMileage(),
+                    b.getNumWheels(), b.getFuelLevel(),
+                    b.getPassengerCapacity(), b.getCurrentPassengers(),
+                    b.getCargoCapacity(), b.getCurrentCargo());
+        }
+        else if (v instanceof Airplane){
+            Airplane a = (Airplane) v;
+            out.printf("Airplane,%s,%s,%.2f,%.2f,%.2f,%.2f,%d,%d,%.2f,%.2f%n",
+                    a.getID(), a.getModel(), a.getMaxSpeed(), a.getCurrentMileage(),
+                    a.getMaxAltitude(), a.getFuelLevel(),
+                    a.getPassengerCapacity(), a.getCurrentPassengers(),
+                    a.getCargoCapacity(), a.getCurrentCargo());
+        } 
+        else if (v instanceof CargoShip){
+            CargoShip cs=(CargoShip) v;
+            out.printf("CargoShip,%s,%s,%.2f,%.2f,%b,%.2f,%.2f,%.2f%n",
+                    cs.getID(), cs.getModel(), cs.getMaxSpeed(), cs.getCurrentMileage(),
+                    cs.hasSail(), cs.getFuelLevel(),
+                    cs.getCargoCapacity(), cs.getCurrentCargo());
+        }
+    }
+
+    // Incremental save: writes only the vehicles added or changed and the IDs removed since the last
+    // saveToFile/saveDelta/loadFromFile, so the cost follows the rate of change, not the fleet size.
+    // Returns the number of records written; mergeDeltas folds the deltas into the base file.
+    public int saveDelta(String filename) throws IOException{
+        long start = metrics.start();
+        FleetJfrEvents.FileIo event = new FleetJfrEvents.FileIo();
+        event.begin();
+        PendingChanges taken = takeChanges();
+        int written = 0;
+        boolean saved = false;
+        try (PrintWriter prnt_writer = csvWriter(filename)){
+            // removals first: a vehicle removed and added again ends up at the end, as in the fleet
+            for (String id : taken.removed){
+                prnt_writer.print(CsvDeltaFiles.REMOVED + "," + id + System.lineSeparator());
+                written++;
+            }
+            for (FleetEntry e : taken.changed){
+                if (fleet.get(e.slot) != e) continue;    // removed again since
+                writeCsvLine(prnt_writer, e.vehicle);
+                written++;
+            }
+            if (prnt_writer.checkError()){
+                throw new IOException("Failed writing delta " + filename);
             }
+            saved = true;
         }
-        // replace fleet with loaded vehicles
-        fleet.clear();
-        fleet.addAll(load1);
-        modelSet.clear();
-        for (Vehicle v : fleet) {
-            modelSet.add(v.getModel());
+        finally{
+            if (!saved) restoreChanges(taken);
+        }
+        metrics.count(FleetMetrics.Counter.VEHICLES_SAVED, written);
+        finishFileIo(FleetMetrics.Op.SAVE_DELTA, "saveDelta", filename, written, 0, start, event);
+        return written;
+    }
+
+    // vehicles added, changed or removed since the last save, what the next saveDelta would write
+    public int getPendingChangeCount(){
+        synchronized (indexLock){
+            return dirtyEntries.size() + removedSinceSave.size();
         }
+    }
+
+    // applies the deltas, oldest first, to baseFile and deletes them; returns the vehicles in the merged file
+    public int mergeDeltas(String baseFile, String... deltaFiles) throws IOException{
+        long start = metrics.start();
+        FleetJfrEvents.FileIo event = new FleetJfrEvents.FileIo();
+        event.begin();
+        List<Path> deltas = new ArrayList<>();
+        for (String d : deltaFiles) deltas.add(Paths.get(d));
+        int merged = CsvDeltaFiles.merge(Paths.get(baseFile), deltas);
+        finishFileIo(FleetMetrics.Op.MERGE_DELTAS, "mergeDeltas", baseFile, merged, 0, start, event);
+        return merged;
+    }
 
+    public void loadFromFile(String filename) throws IOException{
+        long start = metrics.start();
+        FleetJfrEvents.FileIo event = new FleetJfrEvents.FileIo();
+        event.begin();
+        // the file is memory-mapped and parsed in parallel chunks, see CsvFleetLoader
+        CsvFleetLoader.Result loaded = CsvFleetLoader.load(Paths.get(filename));
+        for (String skipped : loaded.skipped){
+            Events.sink().recordSkipped(skipped);
+        }
+        replaceFleet(loaded.vehicles);
+        markClean();
+        journalReplaced();
+        metrics.count(FleetMetrics.Counter.VEHICLES_LOADED, fleet.size());
+        metrics.count(FleetMetrics.Counter.LINES_SKIPPED, loaded.skipped.size());
+        finishFileIo(FleetMetrics.Op.LOAD, "loadFromFile", filename, fleet.size(), loaded.skipped.size(), start, event);
     }
 
-    private String[] splitCsvLine(String line) {
-        return line.split(",", -1);
+    private void finishFileIo(FleetMetrics.Op op, String name, String filename, int count, int skipped,
+                              long start, FleetJfrEvents.FileIo event){
+        event.end();
+        metrics.stop(op, start);
+        if (event.shouldCommit()){
+            event.operation = name;
+            event.path = filename;
+            event.vehicles = count;
+            event.skipped = skipped;
+            event.bytes = new File(filename).length();
+            event.commit();
+        }
     }
 
+    // replace fleet with loaded vehicles
+    private void replaceFleet(List<Vehicle> loaded){
+        clearFleet();
+        for (Vehicle v : loaded) {
+            if (fleet.slotOf(v.getID()) >= 0) {
+                Events.sink().recordSkipped("Skipping duplicate vehicle id: " + v.getID());
+                continue;
+            }
+            register(v);
+        }
+    }
 
-    private static class VehicleFactory{
-        static Vehicle createVehicle(String[] tok) throws Exception{
-            if (tok.length==0) throw new InvalidOperationException("Empty CSV line");
-            String type=tok[0].trim();
+
+    private void journalReplaced(){
+        FleetJournal j = journal;
+        if (j != null) j.replaced(vehicles);
+    }
+
+
+    //binary snapshot (see FleetSnapshotCodec): exact round trip of every field, CSV stays the interchange format
+    public void saveSnapshot(String filename) throws IOException{
+        long start = metrics.start();
+        FleetJfrEvents.FileIo event = new FleetJfrEvents.FileIo();
+        event.begin();
+        FleetSnapshotCodec.write(Paths.get(filename), vehicles);
+        metrics.count(FleetMetrics.Counter.VEHICLES_SAVED, fleet.size());
+        finishFileIo(FleetMetrics.Op.SAVE_SNAPSHOT, "saveSnapshot", filename, fleet.size(), 0, start, event);
+    }
+
+    public void loadSnapshot(String filename) throws IOException{
+        long start = metrics.start();
+        FleetJfrEvents.FileIo event = new FleetJfrEvents.FileIo();
+        event.begin();
+        List<Vehicle> loaded = FleetSnapshotCodec.read(Paths.get(filename));
+        replaceFleet(loaded);
+        journalReplaced();
+        metrics.count(FleetMetrics.Counter.VEHICLES_LOADED, fleet.size());
+        finishFileIo(FleetMetrics.Op.LOAD_SNAPSHOT, "loadSnapshot", filename, fleet.size(), 0, start, event);
+    }
+
+    //independent copies of the vehicles (same IDs and state, no fleet), for what-if runs like
+    //sim.FleetSimulation that must not touch the live fleet
+    public static List<Vehicle> copyOf(List<Vehicle> vehicles){
+        return FleetSnapshotCodec.copy(vehicles);
+    }
+
+    static class VehicleFactory{
+        static Vehicle createVehicle(CsvFleetLoader.Record tok) throws Exception{
+            if (tok.size()==0) throw new InvalidOperationException(() -> "Empty CSV line");
+            String type=tok.text(0).trim();
 
             switch (type){
                 case "Car":{
-                    if (tok.length < 9) throw new InvalidOperationException("Malformed Car CSV");
-                    String id = tok[1];
-                    String model = tok[2];
-                    double maxSpeed = Double.parseDouble(tok[3]);
-                    double currentMileage = Double.parseDouble(tok[4]);
-                    int numWheels = Integer.parseInt(tok[5]);
+                    if (tok.size() < 9) throw new InvalidOperationException(() -> "Malformed Car CSV");
+                    String id = tok.text(1);
+                    String model = tok.text(2);
+                    double maxSpeed = tok.number(3);
+                    double currentMileage = tok.number(4);
+                    int numWheels = tok.integer(5);
                     Car c = new Car(id, model, maxSpeed, currentMileage, numWheels);
                     return c;
                 }
                 case "Truck":{
-                    if (tok.length < 9) throw new InvalidOperationException("Malformed Truck CSV");
-                    String id = tok[1];
-                    String model = tok[2];
-                    double maxSpeed = Double.parseDouble(tok[3]);
-                    double currentMileage = Double.parseDouble(tok[4]);
-                    int numWheels = Integer.parseInt(tok[5]);
+                    if (tok.size() < 9) throw new InvalidOperationException(() -> "Malformed Truck CSV");
+                    String id = tok.text(1);
+                    String model = tok.text(2);
+                    double maxSpeed = tok.number(3);
+                    double currentMileage = tok.number(4);
+                    int numWheels = tok.integer(5);
                     Truck t = new Truck(id, model, maxSpeed, currentMileage, numWheels);
-                    try{t.refuel(Double.parseDouble(tok[6]));}
-                    catch (Exception ignored){}
+                    refuelFrom(t, tok, 6);
                     return t;
                 }
                 case "Bus":{
-                    if (tok.length < 11) throw new InvalidOperationException("Malformed Bus CSV");
-                    String id = tok[1];
-                    String model = tok[2];
-                    double maxSpeed = Double.parseDouble(tok[3]);
-                    double currentMileage = Double.parseDouble(tok[4]);
-                    int numWheels = Integer.parseInt(tok[5]);
+                    if (tok.size() < 11) throw new InvalidOperationException(() -> "Malformed Bus CSV");
+                    String id = tok.text(1);
+                    String model = tok.text(2);
+                    double maxSpeed = tok.number(3);
+                    double currentMileage = tok.number(4);
+                    int numWheels = tok.integer(5);
                     Bus b=new Bus(id, model, maxSpeed, currentMileage, numWheels);
-                    try {b.refuel(Double.parseDouble(tok[6]));} 
-                    catch (Exception ignored) {}
+                    refuelFrom(b, tok, 6);
                     return b;
                 }
                 case "Airplane":{
-                    if (tok.length<11) throw new InvalidOperationException("Malformed Airplane CSV");
-                    String id = tok[1];
-                    String model = tok[2];
-                    double maxSpeed = Double.parseDouble(tok[3]);
-                    double currentMileage = Double.parseDouble(tok[4]);
-                    double maxAltitude = Double.parseDouble(tok[5]);
+                    if (tok.size()<11) throw new InvalidOperationException(() -> "Malformed Airplane CSV");
+                    String id = tok.text(1);
+                    String model = tok.text(2);
+                    double maxSpeed = tok.number(3);
+                    double currentMileage = tok.number(4);
+                    double maxAltitude = tok.number(5);
                     Airplane a=new Airplane(id, model, maxSpeed, currentMileage, maxAltitude);
-                    try {a.refuel(Double.parseDouble(tok[6]));}
-                    catch (Exception ignored) {}
+                    refuelFrom(a, tok, 6);
                     return a;
                 }
                 case "CargoShip":{
-                    if (tok.length < 9) throw new InvalidOperationException("Malformed CargoShip CSV");
-                    String id = tok[1];
-                    String model = tok[2];
-                    double maxSpeed = Double.parseDouble(tok[3]);
-                    double currentMileage = Double.parseDouble(tok[4]);
-                    boolean hasSail = Boolean.parseBoolean(tok[5]);
+                    if (tok.size() < 9) throw new InvalidOperationException(() -> "Malformed CargoShip CSV");
+                    String id = tok.text(1);
+                    String model = tok.text(2);
+                    double maxSpeed = tok.number(3);
+                    double currentMileage = tok.number(4);
+                    boolean hasSail = tok.bool(5);
                     CargoShip cs = new CargoShip(id, model, maxSpeed, currentMileage, hasSail);
-                    try {cs.refuel(Double.parseDouble(tok[6]));}
-                    catch (Exception ignored) {}
+                    if (!hasSail) refuelFrom(cs, tok, 6);
                     return cs;
                 }
                 default:
-                    throw new InvalidOperationException("Unknown vehicle type: " + type);
+                    throw new InvalidOperationException(() -> "Unknown vehicle type: " + type);
+            }
+        }
+
+        // an empty or unreadable fuel field leaves the tank empty; refuel(0) would throw for every
+        // vehicle saved with an empty tank, so it is not called at all
+        private static void refuelFrom(FuelConsumable v, CsvFleetLoader.Record tok, int field){
+            try{
+                double fuel = tok.number(field);
+                if (fuel > 0) v.refuel(fuel);
             }
+            catch (Exception ignored){}
         }
     }
 
     public List<Vehicle> getFleetSnapshot() {
-        return new ArrayList<>(fleet);
+        return new ArrayList<>(vehicles);
     }
 
 
@@ -0,0 +1,235 @@
+package fleet;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+//Operation counters and latency histograms for one FleetManager.
+//
+//Off by default. While disabled every hook is a single volatile read: no clock reads,
+//no counter updates. Counters are LongAdders and histograms use fixed power-of-two
+//buckets, so recording from pool threads in parallel mode does not contend.
+public final class FleetMetrics{
+
+    public enum Counter{
+        VEHICLES_ADDED, VEHICLES_REMOVED,
+        JOURNEYS_OK, JOURNEYS_NO_FUEL, JOURNEYS_INVALID, JOURNEYS_NOT_FOUND, JOURNEYS_UNEXPECTED,
+        FUEL_RUNS_SKIPPED, MAINTENANCE_DONE,
+        VEHICLES_SAVED, VEHICLES_LOADED, LINES_SKIPPED
+    }
+
+    public enum Op{
+        ADD, REMOVE, START_ALL_JOURNEYS, RUN_JOURNEYS, CONSUME_FUEL, MAINTAIN_ALL,
+        SAVE, LOAD, SAVE_SNAPSHOT, LOAD_SNAPSHOT, SAVE_DELTA, MERGE_DELTAS
+    }
+
+    // start() result while disabled, stop() ignores it
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private volatile boolean enabled;
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final DoubleAdder fuelConsumed = new DoubleAdder();
+    private final Histogram[] latencies = new Histogram[Op.values().length];
+
+    FleetMetrics(){
+        for (int i = 0; i < counters.length; i++) counters[i] = new LongAdder();
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new Histogram();
+    }
+
+    public void enable(){
+        enabled = true;
+    }
+
+    public void disable(){
+        enabled = false;
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    public void reset(){
+        for (LongAdder c : counters) c.reset();
+        fuelConsumed.reset();
+        for (Histogram h : latencies) h.reset();
+    }
+
+    long start(){
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    void stop(Op op, long start){
+        if (start != NOT_TIMED){
+            latencies[op.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    void count(Counter c, long n){
+        if (enabled && n != 0) counters[c.ordinal()].add(n);
+    }
+
+    void fuel(double amount){
+        if (enabled) fuelConsumed.add(amount);
+    }
+
+    // tallies a finished wave of journeys
+    void journeys(JourneyBatch batch){
+        if (!enabled) return;
+        long[] byCode = new long[JourneyBatch.UNEXPECTED + 1];
+        byte[] status = batch.statusCodes();
+        for (int i = 0; i < batch.size(); i++) byCode[status[i]]++;
+        count(Counter.JOURNEYS_OK, byCode[JourneyBatch.OK]);
+        count(Counter.JOURNEYS_NO_FUEL, byCode[JourneyBatch.INSUFFICIENT_FUEL]);
+        count(Counter.JOURNEYS_INVALID, byCode[JourneyBatch.INVALID]);
+        count(Counter.JOURNEYS_NOT_FOUND, byCode[JourneyBatch.NOT_FOUND]);
+        count(Counter.JOURNEYS_UNEXPECTED, byCode[JourneyBatch.UNEXPECTED]);
+        fuel(batch.totalFuelUsed());
+    }
+
+    public Snapshot snapshot(){
+        Map<String, Long> c = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()){
+            c.put(counter.name().toLowerCase(Locale.ROOT), counters[counter.ordinal()].sum());
+        }
+        Map<String, Latency> l = new LinkedHashMap<>();
+        for (Op op : Op.values()){
+            l.put(op.name().toLowerCase(Locale.ROOT), latencies[op.ordinal()].summary());
+        }
+        return new Snapshot(c, fuelConsumed.sum(), l);
+    }
+
+    //Point-in-time copy of all metrics. Counters and histograms are read one after another
+    //while recording goes on, so they can be off from each other by in-flight operations.
+    public static final class Snapshot{
+        private final Map<String, Long> counters;
+        private final double fuelConsumed;
+        private final Map<String, Latency> latencies;
+
+        private Snapshot(Map<String, Long> counters, double fuelConsumed, Map<String, Latency> latencies){
+            this.counters = Collections.unmodifiableMap(counters);
+            this.fuelConsumed = fuelConsumed;
+            this.latencies = Collections.unmodifiableMap(latencies);
+        }
+
+        public Map<String, Long> getCounters(){
+            return counters;
+        }
+
+        public long getCounter(Counter c){
+            return counters.get(c.name().toLowerCase(Locale.ROOT));
+        }
+
+        public double getFuelConsumed(){
+            return fuelConsumed;
+        }
+
+        public Map<String, Latency> getLatencies(){
+            return latencies;
+        }
+
+        public Latency getLatency(Op op){
+            return latencies.get(op.name().toLowerCase(Locale.ROOT));
+        }
+
+        // one "name value" line per metric, operations that never ran are left out
+        public String toText(){
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, Long> e : counters.entrySet()){
+                sb.append("fleet_").append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+            }
+            sb.append(String.format(Locale.ROOT, "fleet_fuel_consumed %.3f%n", fuelConsumed));
+            for (Map.Entry<String, Latency> e : latencies.entrySet()){
+                Latency l = e.getValue();
+                if (l.getCount() == 0) continue;
+                String name = "fleet_" + e.getKey() + "_ns";
+                sb.append(name).append("_count ").append(l.getCount()).append('\n');
+                sb.append(String.format(Locale.ROOT, "%s_mean %.0f%n", name, l.getMean()));
+                sb.append(name).append("_p50 ").append(l.getP50()).append('\n');
+                sb.append(name).append("_p90 ").append(l.getP90()).append('\n');
+                sb.append(name).append("_p99 ").append(l.getP99()).append('\n');
+                sb.append(name).append("_max ").append(l.getMax()).append('\n');
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString(){
+            return toText();
+        }
+    }
+
+    //Latency summary in nanoseconds. Percentiles are bucket upper bounds (the next power of two),
+    //capped at the observed max, so they overstate by less than a factor of two.
+    public static final class Latency{
+        private final long count;
+        private final double mean;
+        private final long p50, p90, p99, max;
+
+        private Latency(long count, double mean, long p50, long p90, long p99, long max){
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getCount(){ return count; }
+        public double getMean(){ return mean; }
+        public long getP50(){ return p50; }
+        public long getP90(){ return p90; }
+        public long getP99(){ return p99; }
+        public long getMax(){ return max; }
+    }
+
+    // bucket b holds durations in [2^(b-1), 2^b) ns, bucket 0 holds 0
+    private static final class Histogram{
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos){
+            if (nanos < 0) nanos = 0;
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos));
+            count.increment();
+            total.add(nanos);
+            if (nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+        }
+
+        void reset(){
+            for (int i = 0; i < 64; i++) buckets.set(i, 0);
+            count.reset();
+            total.reset();
+            max.set(0);
+        }
+
+        Latency summary(){
+            long[] b = new long[64];
+            long n = 0;
+            for (int i = 0; i < 64; i++){
+                b[i] = buckets.get(i);
+                n += b[i];
+            }
+            long top = max.get();
+            return new Latency(n, n == 0 ? 0 : (double) total.sum() / n,
+                    quantile(b, n, 0.50, top), quantile(b, n, 0.90, top), quantile(b, n, 0.99, top), top);
+        }
+
+        private static long quantile(long[] b, long n, double q, long max){
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(q * n);
+            long seen = 0;
+            for (int i = 0; i < 64; i++){
+                seen += b[i];
+                if (seen >= rank){
+                    long upper = i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.min(upper, max);
+                }
+            }
+            return max;
+        }
+    }
+}
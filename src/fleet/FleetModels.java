@@ -0,0 +1,49 @@
+package fleet;
+
+import java.util.*;
+
+import vehicles.ModelCatalog;
+import vehicles.Vehicle;
+
+//The distinct models of one fleet: how many vehicles use each model code, and the model names in
+//sorted order. The sorted set only changes when a model gains its first vehicle or loses its last,
+//so getDistinctModels hands out a read-only view of it instead of building a TreeSet per call.
+//Names come from the vehicles themselves: a counted code always has a vehicle here holding it, so
+//the catalog cannot hand it to another name while it is counted.
+final class FleetModels{
+
+    //by model code
+    private int[] counts = new int[64];
+    private final TreeSet<String> sorted = new TreeSet<>();
+    private final SortedSet<String> view = Collections.unmodifiableSortedSet(sorted);
+
+    // returns how many vehicles now use the model
+    int add(Vehicle v){
+        int code = v.getModelCode();
+        if (code == ModelCatalog.NONE) return 1;
+        if (code >= counts.length) counts = Arrays.copyOf(counts, Math.max(code + 1, counts.length * 2));
+        int n = ++counts[code];
+        if (n == 1) sorted.add(v.getModel());
+        return n;
+    }
+
+    void remove(Vehicle v){
+        int code = v.getModelCode();
+        if (code == ModelCatalog.NONE || code >= counts.length || counts[code] == 0) return;
+        // If no other vehicle uses this model, drop it from the distinct models
+        if (--counts[code] == 0) sorted.remove(v.getModel());
+    }
+
+    int count(int code){
+        return code >= 0 && code < counts.length ? counts[code] : 0;
+    }
+
+    void clear(){
+        Arrays.fill(counts, 0);
+        sorted.clear();
+    }
+
+    SortedSet<String> names(){
+        return view;
+    }
+}
@@ -0,0 +1,203 @@
+package fleet;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+import vehicles.Vehicle;
+
+//Ordered index over one numeric vehicle property (mileage, fuel level) for range queries.
+//
+//These keys change on every journey, so the index is refreshed lazily: a change notification only
+//marks the entry stale (O(1), no tree work on the journey path) and the next query re-keys the
+//stale entries before reading. Keys are kept here by slot, not read from the vehicle, so the
+//tree stays consistent while an entry waits. When more than REBUILD_FRACTION of the index is
+//stale, as after a journey wave, it is rebuilt from one sort instead of entry by entry.
+//Entries removed while stale are left in pending (refresh skips them); if adds and removes keep
+//piling them up with no query in between, the index refreshes itself once pending outgrows the tree.
+//Indexes that always go stale together (FleetReach) can skip changed() and track staleness once
+//for the group, calling rekey and rebuild themselves.
+final class FleetRangeIndex{
+
+    private static final int REBUILD_FRACTION = 8;
+    //removed entries pending may hold beyond the tree size before it is refreshed
+    private static final int SLACK = 64;
+
+    private final ToDoubleFunction<Vehicle> key;
+    //indexed key by entry slot
+    private double[] keys = new double[64];
+
+    // lowest key first, ties in fleet order; a probe (slot -1) carries its key in mileage
+    private final Comparator<FleetEntry> order = (a, b) -> {
+        int c = Double.compare(keyOf(a), keyOf(b));
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    };
+
+    private final TreeSet<FleetEntry> tree = new TreeSet<>(order);
+
+    //changed since they were last keyed, deduplicated by slot
+    private final List<FleetEntry> pending = new ArrayList<>();
+    private final BitSet stale = new BitSet();
+
+    FleetRangeIndex(ToDoubleFunction<Vehicle> key){
+        this.key = key;
+    }
+
+    void add(FleetEntry e){
+        int h = e.slot;
+        if (h >= keys.length) keys = Arrays.copyOf(keys, Math.max(h + 1, keys.length * 2));
+        keys[h] = key.applyAsDouble(e.vehicle);
+        tree.add(e);
+    }
+
+    // unflagged, so the next entry in its slot is tracked again; the removed entry may still sit in
+    // pending, refresh skips it because it is no longer in the tree
+    void remove(FleetEntry e){
+        if (tree.remove(e)) stale.clear(e.slot);
+    }
+
+    void clear(){
+        tree.clear();
+        pending.clear();
+        stale.clear();
+    }
+
+    void changed(FleetEntry e){
+        if (!stale.get(e.slot)){
+            stale.set(e.slot);
+            pending.add(e);
+            // only removed entries can make pending longer than the tree
+            if (pending.size() > tree.size() + SLACK) refresh();
+        }
+    }
+
+    // entries with min <= key <= max, lowest key first
+    List<Vehicle> range(double min, double max){
+        return range(min, max, null);
+    }
+
+    // as above, keeping only the vehicles keep accepts (all of them when keep is null)
+    List<Vehicle> range(double min, double max, Predicate<Vehicle> keep){
+        if (Double.isNaN(min) || Double.isNaN(max) || min > max){
+            throw new IllegalArgumentException("Invalid range: " + min + " to " + max);
+        }
+        refresh();
+        List<Vehicle> out = new ArrayList<>();
+        NavigableSet<FleetEntry> hits = tree.subSet(FleetEntry.probe(min, Long.MIN_VALUE), true,
+                FleetEntry.probe(max, Long.MAX_VALUE), true);
+        for (FleetEntry e : hits){
+            if (keep == null || keep.test(e.vehicle)) out.add(e.vehicle);
+        }
+        return out;
+    }
+
+    int size(){
+        return tree.size();
+    }
+
+    private void refresh(){
+        if (pending.isEmpty()) return;
+        if (pending.size() > tree.size() / REBUILD_FRACTION){
+            rebuild();
+            return;
+        }
+        for (FleetEntry e : pending){
+            int h = e.slot;
+            if (stale.get(h) && rekey(e)) stale.clear(h);
+        }
+        pending.clear();
+    }
+
+    // moves e to its current key now; false (and nothing done) when e is not in the index
+    boolean rekey(FleetEntry e){
+        if (!tree.remove(e)) return false;
+        keys[e.slot] = key.applyAsDouble(e.vehicle);
+        tree.add(e);
+        return true;
+    }
+
+    // re-keys every entry from one sort
+    void rebuild(){
+        FleetEntry[] all = tree.toArray(new FleetEntry[0]);
+        for (FleetEntry e : all) keys[e.slot] = key.applyAsDouble(e.vehicle);
+        Arrays.sort(all, order);
+        tree.clear();
+        // a SortedSet with the tree's comparator lets TreeSet build itself in one linear pass
+        tree.addAll(new SortedRun(all));
+        pending.clear();
+        stale.clear();
+    }
+
+    private double keyOf(FleetEntry e){
+        return e.slot < 0 ? e.mileage : keys[e.slot];
+    }
+
+    // Read-only SortedSet over a run of an array sorted by the index order, entries all distinct
+    // (ties are broken by seq). rebuild hands it to addAll, which TreeSet turns into one linear
+    // build; views and lookups are binary searches over the same array.
+    private final class SortedRun extends AbstractSet<FleetEntry> implements SortedSet<FleetEntry>{
+        private final FleetEntry[] items;
+        private final int from, to;
+
+        SortedRun(FleetEntry[] items){
+            this(items, 0, items.length);
+        }
+
+        private SortedRun(FleetEntry[] items, int from, int to){
+            this.items = items;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Iterator<FleetEntry> iterator(){
+            return Collections.unmodifiableList(Arrays.asList(items).subList(from, to)).iterator();
+        }
+
+        public int size(){
+            return to - from;
+        }
+
+        public boolean contains(Object o){
+            if (!(o instanceof FleetEntry)) return false;
+            FleetEntry e = (FleetEntry) o;
+            int i = indexOf(e);
+            return i < to && order.compare(items[i], e) == 0;
+        }
+
+        public Comparator<? super FleetEntry> comparator(){
+            return order;
+        }
+
+        public FleetEntry first(){
+            if (from == to) throw new NoSuchElementException();
+            return items[from];
+        }
+
+        public FleetEntry last(){
+            if (from == to) throw new NoSuchElementException();
+            return items[to - 1];
+        }
+
+        // fromElement inclusive, toElement exclusive
+        public SortedSet<FleetEntry> subSet(FleetEntry fromElement, FleetEntry toElement){
+            if (order.compare(fromElement, toElement) > 0){
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            return new SortedRun(items, indexOf(fromElement), indexOf(toElement));
+        }
+
+        public SortedSet<FleetEntry> headSet(FleetEntry toElement){
+            return new SortedRun(items, from, indexOf(toElement));
+        }
+
+        public SortedSet<FleetEntry> tailSet(FleetEntry fromElement){
+            return new SortedRun(items, indexOf(fromElement), to);
+        }
+
+        // first position in [from, to] whose entry is not below e
+        private int indexOf(FleetEntry e){
+            int i = Arrays.binarySearch(items, from, to, e, order);
+            return i >= 0 ? i : -i - 1;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package fleet;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import vehicles.CargoShip;
+import vehicles.Vehicle;
+import interfaces.FuelConsumable;
+
+//Journey feasibility index: every vehicle keyed by how far it can travel right now, fuel level x
+//fuel efficiency, or unlimited for a cargo ship under sail. "Who can cover d km" is then the tail
+//of the index from d, answered without calling move and without touching any vehicle.
+//
+//Besides the whole fleet there is one index per concrete class and per capability interface
+//(FleetBuckets.CAPABILITIES), so a type-filtered query only walks vehicles of that type. The
+//indexes are FleetRangeIndexes refreshed lazily as a group: a change marks the vehicle stale once
+//here, not once per index, and the next query re-keys it in every index it belongs to. As in
+//FleetRangeIndex, entries removed while stale stay in pending until the next refresh, which
+//changed() forces once pending outgrows the fleet.
+final class FleetReach{
+
+    //fuel x efficiency and d / efficiency <= fuel can disagree in the last bits, so the index is read
+    //from a little below d and every candidate gets the exact test tryMove uses
+    private static final double MARGIN = 1e-9;
+    //removed entries pending may hold beyond the fleet size before it is refreshed
+    private static final int SLACK = 64;
+
+    private final FleetRangeIndex all = new FleetRangeIndex(FleetReach::reach);
+    //concrete classes and capabilities -> their index
+    private final Map<Class<?>, FleetRangeIndex> byType = new HashMap<>();
+    //concrete class -> every index its vehicles belong to, all included
+    private final Map<Class<?>, FleetRangeIndex[]> memberOf = new HashMap<>();
+
+    //changed since they were last keyed, deduplicated by slot
+    private final List<FleetEntry> pending = new ArrayList<>();
+    private final BitSet stale = new BitSet();
+
+    FleetReach(){
+        for (Class<?> cap : FleetBuckets.CAPABILITIES) byType.put(cap, new FleetRangeIndex(FleetReach::reach));
+    }
+
+    // km the vehicle can travel on its current fuel, infinite when fuel does not limit it
+    static double reach(Vehicle v){
+        if (!(v instanceof FuelConsumable)) return Double.POSITIVE_INFINITY;
+        double efficiency = v.calculateFuelEfficiency();
+        if (efficiency == 0 && v instanceof CargoShip) return Double.POSITIVE_INFINITY;
+        return efficiency > 0 ? ((FuelConsumable) v).getFuelLevel() * efficiency : 0;
+    }
+
+    // the fuel check of tryMove, without moving
+    static boolean canTravel(Vehicle v, double distance){
+        if (!(v instanceof FuelConsumable)) return true;
+        double efficiency = v.calculateFuelEfficiency();
+        if (efficiency == 0 && v instanceof CargoShip) return true;
+        return ((FuelConsumable) v).getFuelLevel() >= distance / efficiency;
+    }
+
+    void add(FleetEntry e){
+        for (FleetRangeIndex index : indexesOf(e.vehicle.getClass())) index.add(e);
+    }
+
+    // unflagged, so the next entry in its slot is tracked again; refresh skips the removed entry
+    void remove(FleetEntry e){
+        for (FleetRangeIndex index : indexesOf(e.vehicle.getClass())) index.remove(e);
+        stale.clear(e.slot);
+    }
+
+    void changed(FleetEntry e){
+        if (!stale.get(e.slot)){
+            stale.set(e.slot);
+            pending.add(e);
+            // only removed entries can make pending longer than the fleet
+            if (pending.size() > all.size() + SLACK) refresh();
+        }
+    }
+
+    void clear(){
+        all.clear();
+        for (FleetRangeIndex index : byType.values()) index.clear();
+        pending.clear();
+        stale.clear();
+    }
+
+    // vehicles of the given type (null for any) that can travel distance km and that keep accepts
+    // (null for all), shortest reach first. Types without their own index (superclasses such as
+    // LandVehicle) are filtered while walking the whole-fleet index.
+    List<Vehicle> able(double distance, Class<?> type, Predicate<Vehicle> keep){
+        if (Double.isNaN(distance) || distance < 0){
+            throw new IllegalArgumentException("Distance must not be negative: " + distance);
+        }
+        refresh();
+        FleetRangeIndex index = type == null || type == Vehicle.class ? all : byType.get(type);
+        Predicate<Vehicle> test = v -> canTravel(v, distance) && (keep == null || keep.test(v));
+        if (index == null){
+            index = all;
+            Predicate<Vehicle> typed = test;
+            test = v -> type.isInstance(v) && typed.test(v);
+        }
+        return index.range(distance * (1 - MARGIN), Double.POSITIVE_INFINITY, test);
+    }
+
+    // same policy as FleetRangeIndex: re-key the stale vehicles one by one, or rebuild every
+    // index when a large part of the fleet has changed
+    private void refresh(){
+        if (pending.isEmpty()) return;
+        if (pending.size() > all.size() / 8){
+            all.rebuild();
+            for (FleetRangeIndex index : byType.values()) index.rebuild();
+            stale.clear();
+        }
+        else{
+            for (FleetEntry e : pending){
+                int h = e.slot;
+                // removed entries are no longer in the whole-fleet index
+                if (!stale.get(h) || !all.rekey(e)) continue;
+                stale.clear(h);
+                FleetRangeIndex[] indexes = indexesOf(e.vehicle.getClass());
+                for (int i = 1; i < indexes.length; i++) indexes[i].rekey(e);
+            }
+        }
+        pending.clear();
+    }
+
+    private FleetRangeIndex[] indexesOf(Class<?> cls){
+        FleetRangeIndex[] indexes = memberOf.get(cls);
+        if (indexes == null){
+            List<FleetRangeIndex> list = new ArrayList<>();
+            list.add(all);
+            list.add(byType.computeIfAbsent(cls, k -> new FleetRangeIndex(FleetReach::reach)));
+            for (Class<?> cap : FleetBuckets.CAPABILITIES){
+                if (cap.isAssignableFrom(cls)) list.add(byType.get(cap));
+            }
+            indexes = list.toArray(new FleetRangeIndex[0]);
+            memberOf.put(cls, indexes);
+        }
+        return indexes;
+    }
+}
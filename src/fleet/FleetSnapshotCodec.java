@@ -0,0 +1,262 @@
+package fleet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import vehicles.*;
+import interfaces.*;
+import exceptions.*;
+
+//Binary fleet snapshot, lossless counterpart of the CSV format.
+//
+//  header : int magic 'FLTS', short version, int record count
+//  record : byte type, fixed-width numeric block for that type, then id and model
+//           as (unsigned short length, UTF-8 bytes); length 0xFFFF stands for a null model
+//
+//  common block : double maxSpeed, double mileage, double fuelLevel, byte flags (bit 0 = maintenance scheduled)
+//  Car          : int numWheels, int passengers
+//  Truck        : int numWheels, double cargo
+//  Bus          : int numWheels, int passengers, double cargo
+//  Airplane     : double maxAltitude, int passengers, double cargo
+//  CargoShip    : byte hasSail, double cargo
+//
+//Doubles are stored as raw IEEE bits, so every field round-trips exactly.
+//A snapshot is written next to its target and moved over it once forced to disk, so a crash
+//mid-save leaves the previous snapshot in place.
+final class FleetSnapshotCodec{
+
+    static final int MAGIC = 0x464C5453;
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 4;
+
+    static final byte CAR = 1;
+    static final byte TRUCK = 2;
+    static final byte BUS = 3;
+    static final byte AIRPLANE = 4;
+    static final byte CARGO_SHIP = 5;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    // string length written for null
+    private static final int NULL_LENGTH = 0xFFFF;
+    // largest possible record: type + biggest numeric block + two max-length strings
+    private static final int MAX_RECORD = 1 + 25 + 20 + 2 * (2 + NULL_LENGTH);
+
+    private FleetSnapshotCodec(){}
+
+    // replaces file atomically: either the old snapshot or the complete new one is there afterwards
+    static void write(Path file, Iterable<Vehicle> vehicles) throws IOException{
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try{
+            writeTo(tmp, vehicles);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException | RuntimeException e){
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private static void writeTo(Path file, Iterable<Vehicle> vehicles) throws IOException{
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buf.putInt(MAGIC).putShort(VERSION).putInt(0);
+            int count = 0;
+            for (Vehicle v : vehicles){
+                if (buf.remaining() < MAX_RECORD){
+                    drain(ch, buf);
+                }
+                if (encode(v, buf)) count++;
+            }
+            drain(ch, buf);
+
+            // patch the record count now that it is known
+            ByteBuffer countBuf = ByteBuffer.allocate(4).putInt(0, count);
+            ch.write(countBuf, 6);
+            ch.force(true);
+        }
+    }
+
+    static List<Vehicle> read(Path file) throws IOException{
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)){
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buf.flip();
+            fill(ch, buf, HEADER_SIZE);
+            if (buf.getInt() != MAGIC){
+                throw new IOException("Not a fleet snapshot: " + file);
+            }
+            short version = buf.getShort();
+            if (version != VERSION){
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            int count = buf.getInt();
+            List<Vehicle> out = new ArrayList<>(count);
+            for (int i = 0; i < count; i++){
+                if (buf.remaining() < MAX_RECORD){
+                    fill(ch, buf, 1);
+                }
+                try{
+                    out.add(decode(buf));
+                }
+                catch (InvalidOperationException | OverloadException e){
+                    throw new IOException("Corrupt snapshot record " + (i + 1) + ": " + e.getMessage(), e);
+                }
+                catch (RuntimeException e){
+                    throw new IOException("Truncated snapshot at record " + (i + 1), e);
+                }
+            }
+            return out;
+        }
+    }
+
+    // detached copies with every field as it is now, no listener attached
+    static List<Vehicle> copy(List<Vehicle> vehicles){
+        ByteBuffer buf = ByteBuffer.allocate(MAX_RECORD);
+        List<Vehicle> out = new ArrayList<>(vehicles.size());
+        for (Vehicle v : vehicles){
+            buf.clear();
+            if (!encode(v, buf)){
+                throw new IllegalArgumentException("Cannot copy vehicle type: " + v.getClass().getName());
+            }
+            buf.flip();
+            try{
+                out.add(decode(buf));
+            }
+            catch (InvalidOperationException | OverloadException e){
+                // the values came from a live vehicle, so they are valid
+                throw new IllegalStateException("Cannot copy vehicle " + v.getID(), e);
+            }
+        }
+        return out;
+    }
+
+    // returns false for vehicle types the format does not know about, like the CSV writer they are skipped
+    static boolean encode(Vehicle v, ByteBuffer buf){
+        byte type;
+        if (v instanceof Car) type = CAR;
+        else if (v instanceof Truck) type = TRUCK;
+        else if (v instanceof Bus) type = BUS;
+        else if (v instanceof Airplane) type = AIRPLANE;
+        else if (v instanceof CargoShip) type = CARGO_SHIP;
+        else return false;
+
+        buf.put(type);
+        buf.putDouble(v.getMaxSpeed());
+        buf.putDouble(v.getCurrentMileage());
+        buf.putDouble(((FuelConsumable) v).getFuelLevel());
+        buf.put((byte) (((Maintainable) v).isMaintenanceScheduled() ? 1 : 0));
+        switch (type){
+            case CAR:{
+                Car c = (Car) v;
+                buf.putInt(c.getNumWheels()).putInt(c.getCurrentPassengers());
+                break;
+            }
+            case TRUCK:{
+                Truck t = (Truck) v;
+                buf.putInt(t.getNumWheels()).putDouble(t.getCurrentCargo());
+                break;
+            }
+            case BUS:{
+                Bus b = (Bus) v;
+                buf.putInt(b.getNumWheels()).putInt(b.getCurrentPassengers()).putDouble(b.getCurrentCargo());
+                break;
+            }
+            case AIRPLANE:{
+                Airplane a = (Airplane) v;
+                buf.putDouble(a.getMaxAltitude()).putInt(a.getCurrentPassengers()).putDouble(a.getCurrentCargo());
+                break;
+            }
+            default:{
+                CargoShip cs = (CargoShip) v;
+                buf.put((byte) (cs.hasSail() ? 1 : 0)).putDouble(cs.getCurrentCargo());
+            }
+        }
+        putString(buf, v.getID());
+        putString(buf, v.getModel());
+        return true;
+    }
+
+    // rebuilds the vehicle through its public API; every value starts from zero so refuel/load/board
+    // restore it exactly
+    static Vehicle decode(ByteBuffer buf) throws InvalidOperationException, OverloadException{
+        byte type = buf.get();
+        double maxSpeed = buf.getDouble();
+        double mileage = buf.getDouble();
+        double fuel = buf.getDouble();
+        boolean scheduled = (buf.get() & 1) != 0;
+        int wheels = 0, passengers = 0;
+        double altitude = 0, cargo = 0;
+        boolean sail = false;
+        switch (type){
+            case CAR: wheels = buf.getInt(); passengers = buf.getInt(); break;
+            case TRUCK: wheels = buf.getInt(); cargo = buf.getDouble(); break;
+            case BUS: wheels = buf.getInt(); passengers = buf.getInt(); cargo = buf.getDouble(); break;
+            case AIRPLANE: altitude = buf.getDouble(); passengers = buf.getInt(); cargo = buf.getDouble(); break;
+            case CARGO_SHIP: sail = buf.get() != 0; cargo = buf.getDouble(); break;
+            default: throw new InvalidOperationException(() -> "Unknown vehicle type code: " + type);
+        }
+        String id = getString(buf);
+        String model = getString(buf);
+
+        Vehicle v;
+        switch (type){
+            case CAR: v = new Car(id, model, maxSpeed, mileage, wheels); break;
+            case TRUCK: v = new Truck(id, model, maxSpeed, mileage, wheels); break;
+            case BUS: v = new Bus(id, model, maxSpeed, mileage, wheels); break;
+            case AIRPLANE: v = new Airplane(id, model, maxSpeed, mileage, altitude); break;
+            default: v = new CargoShip(id, model, maxSpeed, mileage, sail);
+        }
+        if (fuel > 0) ((FuelConsumable) v).refuel(fuel);
+        if (cargo > 0) ((CargoCarrier) v).loadCargo(cargo);
+        if (passengers > 0) ((PassengerCarrier) v).boardPassengers(passengers);
+        if (scheduled) ((Maintainable) v).scheduleMaintenance();
+        return v;
+    }
+
+    // null is written as the length NULL_LENGTH with no bytes, so real values stay below it
+    static void putString(ByteBuffer buf, String s){
+        if (s == null){
+            buf.putShort((short) NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH){
+            throw new IllegalArgumentException("Value too long for snapshot: " + s.substring(0, 32) + "...");
+        }
+        buf.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer buf){
+        int len = buf.getShort() & 0xFFFF;
+        if (len == NULL_LENGTH) return null;
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException{
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    // tops buf up with bulk reads until it holds at least min bytes or the file ends
+    private static void fill(FileChannel ch, ByteBuffer buf, int min) throws IOException{
+        buf.compact();
+        while (buf.position() < min || buf.hasRemaining()){
+            if (ch.read(buf) < 0) break;
+        }
+        buf.flip();
+        if (buf.remaining() < min){
+            throw new IOException("Truncated fleet snapshot");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package fleet;
+
+import java.util.*;
+
+//Report aggregates kept current as vehicles are added, removed and changed,
+//so generateReport costs O(number of types) instead of a fleet scan.
+final class FleetStats{
+
+    private final Map<String, Integer> byType = new TreeMap<>();
+    private int vehicleCount;
+
+    // Neumaier-compensated sums: values are added and later subtracted again, plain double
+    // sums would drift away from what a fresh scan computes
+    private double mileageSum, mileageComp;
+    private double effSum, effComp;
+    private int effCount;
+    private int maintenanceCount;
+
+    synchronized void add(FleetEntry e){
+        byType.merge(e.vehicle.getClass().getSimpleName(), 1, Integer::sum);
+        vehicleCount++;
+        addState(e);
+    }
+
+    synchronized void remove(FleetEntry e){
+        byType.computeIfPresent(e.vehicle.getClass().getSimpleName(), (k, c) -> c > 1 ? c - 1 : null);
+        vehicleCount--;
+        removeState(e);
+    }
+
+    // the entry's cached state is about to be replaced: call before e.capture(), then stateAdded
+    synchronized void removeState(FleetEntry e){
+        addMileage(-e.mileage);
+        if (e.efficiency > 0){ addEff(-e.efficiency); effCount--; }
+        if (e.needsMaintenance) maintenanceCount--;
+    }
+
+    synchronized void addState(FleetEntry e){
+        addMileage(e.mileage);
+        if (e.efficiency > 0){ addEff(e.efficiency); effCount++; }
+        if (e.needsMaintenance) maintenanceCount++;
+    }
+
+    // the vehicle behind e has changed: swap its old cached state for the current one
+    synchronized void update(FleetEntry e){
+        removeState(e);
+        e.capture();
+        addState(e);
+    }
+
+    synchronized void clear(){
+        byType.clear();
+        vehicleCount = 0;
+        mileageSum = mileageComp = 0;
+        effSum = effComp = 0;
+        effCount = 0;
+        maintenanceCount = 0;
+    }
+
+    synchronized Map<String, Integer> countByType(){
+        return new TreeMap<>(byType);
+    }
+
+    synchronized int vehicleCount(){
+        return vehicleCount;
+    }
+
+    synchronized double totalMileage(){
+        return mileageSum + mileageComp;
+    }
+
+    // NaN when no vehicle has a positive efficiency
+    synchronized double averageEfficiency(){
+        return effCount > 0 ? (effSum + effComp) / effCount : Double.NaN;
+    }
+
+    synchronized int maintenanceCount(){
+        return maintenanceCount;
+    }
+
+    private void addMileage(double x){
+        double t = mileageSum + x;
+        mileageComp += Math.abs(mileageSum) >= Math.abs(x) ? (mileageSum - t) + x : (x - t) + mileageSum;
+        mileageSum = t;
+    }
+
+    private void addEff(double x){
+        double t = effSum + x;
+        effComp += Math.abs(effSum) >= Math.abs(x) ? (effSum - t) + x : (x - t) + effSum;
+        effSum = t;
+    }
+}
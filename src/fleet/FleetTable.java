@@ -0,0 +1,223 @@
+package fleet;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import vehicles.Vehicle;
+
+//FleetManager's storage: an ID dictionary that gives every registered vehicle a dense int
+//slot, the entries indexed by slot, and the fleet (insertion) order as links between slots.
+//
+//The dictionary is an open-addressing table with linear probing over int cells (slot + 1,
+//0 = empty, -1 = deleted), so an ID lookup is one String hash and a few array reads with no
+//boxing and no node objects. The ID hashes are kept per slot, so a probe only calls equals on
+//a real match and growing the table never rehashes a String. Slots of removed vehicles are
+//reused by later adds, keeping the arrays dense.
+//
+//Callers outside get a long handle instead of the bare slot: the slot in the low 32 bits and the
+//slot's generation above it. A slot's generation moves on every time its vehicle leaves, so a
+//handle kept past a remove never resolves to the vehicle that reused the slot.
+final class FleetTable implements Iterable<FleetEntry>{
+
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+    private static final int NONE = -1;
+
+    //generations stay below 2^31, so a handle is never negative
+    private static final int GENERATION_MASK = 0x7fffffff;
+    private static final long SLOT_MASK = 0xffffffffL;
+
+    //probe table, power of two long, at most half full counting deleted cells
+    private int[] cells = new int[16];
+    private int used;
+
+    //by slot
+    private FleetEntry[] entries = new FleetEntry[8];
+    private int[] hashes = new int[8];
+    private int[] prev = new int[8];
+    private int[] next = new int[8];
+    //kept across clear(), a slot handed out again must not look like its old handles
+    private int[] generations = new int[8];
+
+    private int head = NONE;
+    private int tail = NONE;
+    private int size;
+    //slots below this have been handed out at least once
+    private int highWater;
+    private int[] free = new int[8];
+    private int freeCount;
+
+    int size(){
+        return size;
+    }
+
+    // every slot is below this
+    int slotLimit(){
+        return highWater;
+    }
+
+    // NONE (-1) when the ID is not registered
+    int slotOf(String id){
+        int h = spread(id.hashCode());
+        int mask = cells.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask){
+            int c = cells[i];
+            if (c == EMPTY) return NONE;
+            if (c != DELETED){
+                int slot = c - 1;
+                if (hashes[slot] == h && entries[slot].vehicle.getID().equals(id)) return slot;
+            }
+        }
+    }
+
+    FleetEntry get(String id){
+        int slot = slotOf(id);
+        return slot == NONE ? null : entries[slot];
+    }
+
+    // null for a slot that is out of range or not in use
+    FleetEntry get(int slot){
+        return slot >= 0 && slot < highWater ? entries[slot] : null;
+    }
+
+    // the entry's current handle
+    long handleOf(FleetEntry e){
+        return (long) generations[e.slot] << 32 | e.slot;
+    }
+
+    // null for a malformed handle, or one whose vehicle has been removed since
+    FleetEntry byHandle(long handle){
+        if (handle < 0) return null;
+        int slot = (int) (handle & SLOT_MASK);
+        if (slot < 0 || slot >= highWater || generations[slot] != (int) (handle >>> 32)) return null;
+        return entries[slot];
+    }
+
+    // the caller has checked that the ID is not registered yet; the entry goes to the end of the fleet order
+    FleetEntry add(Vehicle v, long seq){
+        int slot = freeCount > 0 ? free[--freeCount] : highWater++;
+        if (slot >= entries.length) growSlots();
+        if (2 * (used + 1) > cells.length){
+            // full of live IDs: grow; mostly deleted cells: same size, just cleaned up
+            rehash(4 * (size + 1) > cells.length ? cells.length * 2 : cells.length);
+        }
+        FleetEntry e = new FleetEntry(v, seq, slot);
+        int h = spread(v.getID().hashCode());
+        entries[slot] = e;
+        hashes[slot] = h;
+        prev[slot] = tail;
+        next[slot] = NONE;
+        if (tail == NONE) head = slot;
+        else next[tail] = slot;
+        tail = slot;
+        size++;
+
+        int mask = cells.length - 1;
+        int i = h & mask;
+        while (cells[i] > 0) i = (i + 1) & mask;
+        if (cells[i] == EMPTY) used++;
+        cells[i] = slot + 1;
+        return e;
+    }
+
+    FleetEntry remove(String id){
+        int slot = slotOf(id);
+        return slot == NONE ? null : remove(entries[slot]);
+    }
+
+    FleetEntry remove(long handle){
+        FleetEntry e = byHandle(handle);
+        return e == null ? null : remove(e);
+    }
+
+    private FleetEntry remove(FleetEntry e){
+        int slot = e.slot;
+        int mask = cells.length - 1;
+        int i = hashes[slot] & mask;
+        while (cells[i] != slot + 1) i = (i + 1) & mask;
+        cells[i] = DELETED;
+
+        int p = prev[slot], n = next[slot];
+        if (p == NONE) head = n;
+        else next[p] = n;
+        if (n == NONE) tail = p;
+        else prev[n] = p;
+
+        entries[slot] = null;
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = slot;
+        size--;
+        return e;
+    }
+
+    void clear(){
+        for (int slot = head; slot != NONE; slot = next[slot]){
+            generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        }
+        Arrays.fill(cells, EMPTY);
+        Arrays.fill(entries, 0, highWater, null);
+        used = 0;
+        head = tail = NONE;
+        size = 0;
+        highWater = 0;
+        freeCount = 0;
+    }
+
+    // handles in fleet order
+    long[] handles(){
+        long[] out = new long[size];
+        int k = 0;
+        for (int s = head; s != NONE; s = next[s]) out[k++] = (long) generations[s] << 32 | s;
+        return out;
+    }
+
+    // fleet order
+    @Override
+    public Iterator<FleetEntry> iterator(){
+        return new Iterator<FleetEntry>(){
+            private int cursor = head;
+
+            public boolean hasNext(){
+                return cursor != NONE;
+            }
+
+            public FleetEntry next(){
+                if (cursor == NONE) throw new NoSuchElementException();
+                FleetEntry e = entries[cursor];
+                cursor = next[cursor];
+                return e;
+            }
+        };
+    }
+
+    private void growSlots(){
+        int n = entries.length * 2;
+        entries = Arrays.copyOf(entries, n);
+        hashes = Arrays.copyOf(hashes, n);
+        prev = Arrays.copyOf(prev, n);
+        next = Arrays.copyOf(next, n);
+        generations = Arrays.copyOf(generations, n);
+    }
+
+    // rebuilds the probe table from the stored hashes, dropping deleted cells
+    private void rehash(int capacity){
+        cells = new int[capacity];
+        used = 0;
+        int mask = capacity - 1;
+        for (int s = head; s != NONE; s = next[s]){
+            int i = hashes[s] & mask;
+            while (cells[i] != EMPTY) i = (i + 1) & mask;
+            cells[i] = s + 1;
+            used++;
+        }
+    }
+
+    // String hashes of similar IDs ("V1", "V2", ...) differ mostly in the low bits; mixing the
+    // high bits in keeps linear probing runs short
+    private static int spread(int h){
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,121 @@
+package fleet;
+
+import java.util.Arrays;
+
+import vehicles.Outcome;
+
+//Results of FleetManager.runJourneys: one status code and fuel figure per requested journey,
+//in request order, held in primitive arrays. A batch can be reused for the next dispatch wave,
+//the arrays only grow when a wave is bigger than any before it.
+//
+//Failure messages are kept only when the batch is created with recordDetails, and then only
+//for the journeys that failed.
+public final class JourneyBatch{
+
+    public static final byte OK = Outcome.OK;
+    public static final byte NOT_FOUND = 1;
+    public static final byte INVALID = Outcome.INVALID;
+    public static final byte INSUFFICIENT_FUEL = Outcome.INSUFFICIENT_FUEL;
+    public static final byte UNEXPECTED = 4;
+
+    private final boolean recordDetails;
+    private int size;
+    private byte[] status;
+    private double[] fuelUsed;
+    private String[] details;
+
+    public JourneyBatch(){
+        this(0, false);
+    }
+
+    public JourneyBatch(int capacity, boolean recordDetails){
+        this.recordDetails = recordDetails;
+        this.status = new byte[capacity];
+        this.fuelUsed = new double[capacity];
+        this.details = recordDetails ? new String[capacity] : null;
+    }
+
+    // clears the previous wave and makes room for n journeys
+    void reset(int n){
+        if (status.length < n){
+            status = new byte[n];
+            fuelUsed = new double[n];
+            if (recordDetails) details = new String[n];
+        }
+        else if (recordDetails){
+            // every journey sets its status and fuel, but details are only written on failure
+            Arrays.fill(details, 0, size, null);
+        }
+        size = n;
+    }
+
+    void set(int i, byte code, double fuel, String detail){
+        status[i] = code;
+        fuelUsed[i] = fuel;
+        if (recordDetails && code != OK) details[i] = detail;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public byte getStatus(int i){
+        return status[check(i)];
+    }
+
+    public double getFuelUsed(int i){
+        return fuelUsed[check(i)];
+    }
+
+    // null for successful journeys, and for every journey when details are not recorded
+    public String getDetail(int i){
+        check(i);
+        return recordDetails ? details[i] : null;
+    }
+
+    public boolean isRecordingDetails(){
+        return recordDetails;
+    }
+
+    // backing arrays, only the first size() entries belong to the last wave
+    public byte[] statusCodes(){
+        return status;
+    }
+
+    public double[] fuelUsed(){
+        return fuelUsed;
+    }
+
+    public int failureCount(){
+        int count = 0;
+        for (int i = 0; i < size; i++){
+            if (status[i] != OK) count++;
+        }
+        return count;
+    }
+
+    // summed in request order, the same whether the wave ran sequentially or in parallel
+    public double totalFuelUsed(){
+        double total = 0;
+        for (int i = 0; i < size; i++) total += fuelUsed[i];
+        return total;
+    }
+
+    public static String describe(byte code){
+        switch (code){
+            case OK: return "Ok";
+            case NOT_FOUND: return "not found";
+            case INVALID: return "invalid";
+            case INSUFFICIENT_FUEL: return "insufficient fuel";
+            case UNEXPECTED: return "unexpected fail";
+            default: return "unknown";
+        }
+    }
+
+    private int check(int i){
+        if (i < 0 || i >= size){
+            throw new IndexOutOfBoundsException("Journey " + i + " out of range for batch of " + size);
+        }
+        return i;
+    }
+}
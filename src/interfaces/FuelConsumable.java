@@ -3,7 +3,25 @@ import exceptions.InvalidOperationException;
 import exceptions.InsufficientFuelException;
 
 public interface FuelConsumable{
+    //returned by tryConsumeFuel when the tank does not hold enough for the distance;
+    //NaN so no real amount can equal it, test it with Double.isNaN
+    double NOT_ENOUGH_FUEL = Double.NaN;
+
     void refuel(double amount)throws InvalidOperationException;
     double getFuelLevel();
     double consumeFuel(double distance)throws InsufficientFuelException;
+    //consumeFuel without the exception: fuel used, or NOT_ENOUGH_FUEL and the tank is untouched.
+    //a negative or NaN distance is a caller bug and throws IllegalArgumentException
+    double tryConsumeFuel(double distance);
+
+    //message for a failed consumeFuel, also used when a bulk run skips this vehicle
+    default String fuelFailure(double distance){
+        return "Not enough fuel for " + distance + "km";
+    }
+
+    static void checkDistance(double distance){
+        if (!(distance >= 0)){
+            throw new IllegalArgumentException("Distance cannot be negative: " + distance);
+        }
+    }
 }
@@ -4,4 +4,8 @@ public interface Maintainable{
     void scheduleMaintenance();
     boolean needsMaintenance();
     void performMaintenance();
+    //explicitly scheduled, as opposed to due by mileage; default so older implementers still compile
+    default boolean isMaintenanceScheduled(){
+        return false;
+    }
 }
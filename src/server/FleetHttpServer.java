@@ -0,0 +1,393 @@
+package server;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import fleet.FleetManager;
+import fleet.JourneyBatch;
+import vehicles.*;
+import interfaces.*;
+
+//Embedded HTTP/JSON query service over one FleetManager, bound to localhost.
+//
+//  GET  /health
+//  GET  /report                                  {"report": generateReport()}
+//  GET  /vehicles?type=Car|...|Maintainable      vehicles of a type, or all of them
+//  GET  /vehicles/sorted?by=speed|model|efficiency&offset=0&limit=100
+//  GET  /vehicles/<id>                           one vehicle, 404 if unknown
+//  POST /journeys?distance=<km>                  startAllJourneys, one result per vehicle
+//  POST /journeys                                body: one "id,km" per line, sent as one runJourneys wave
+//
+//Every request runs on its own virtual thread when the JDK has them (21+), otherwise on a pool of
+//platform threads. Queries share a read lock and journeys take the write lock, since FleetManager
+//itself is not thread-safe; code that changes the same fleet while the server runs must hold
+//getLock().writeLock() too. Lists are collected under the lock and then streamed out with a
+//chunked response, so a slow client never holds the lock.
+public final class FleetHttpServer implements AutoCloseable{
+
+    //without virtual threads: requests beyond this many wait in the executor's queue
+    private static final int PLATFORM_THREADS = Math.max(16, 8 * Runtime.getRuntime().availableProcessors());
+    private static final int BACKLOG = 4096;
+    private static final int FLUSH_AT = 1 << 15;
+
+    private final FleetManager fm;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    // port 0 picks a free port, see getPort()
+    public FleetHttpServer(FleetManager fm, int port) throws IOException{
+        this.fm = Objects.requireNonNull(fm, "Fleet manager cannot be null");
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        ExecutorService virtual = virtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(PLATFORM_THREADS, daemonThreads());
+        server.setExecutor(executor);
+        server.createContext("/health", ex -> handle(ex, "GET", this::health));
+        server.createContext("/report", ex -> handle(ex, "GET", this::report));
+        server.createContext("/vehicles", ex -> handle(ex, "GET", this::vehicles));
+        server.createContext("/journeys", ex -> handle(ex, "POST", this::journeys));
+    }
+
+    public void start(){
+        server.start();
+    }
+
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+    public boolean usesVirtualThreads(){
+        return virtualThreads;
+    }
+
+    public ReentrantReadWriteLock getLock(){
+        return lock;
+    }
+
+    @Override
+    public void close(){
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() by reflection, so the code still builds and runs on
+    // JDKs without it; null when it is missing (before 21) or disabled (preview on 19/20)
+    private static ExecutorService virtualThreadExecutor(){
+        try{
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        }
+        catch (ReflectiveOperationException | RuntimeException e){
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(){
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "fleet-http-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    //a request the server answers with an error status and {"error": message}
+    private static final class RequestException extends Exception{
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        RequestException(int status, String message){
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+
+    private interface Endpoint{
+        void serve(HttpExchange ex) throws IOException, RequestException;
+    }
+
+    private void handle(HttpExchange ex, String method, Endpoint endpoint){
+        try{
+            try{
+                if (!ex.getRequestMethod().equalsIgnoreCase(method)){
+                    ex.getResponseHeaders().set("Allow", method);
+                    throw new RequestException(405, "Use " + method);
+                }
+                endpoint.serve(ex);
+            }
+            catch (RequestException e){
+                sendError(ex, e.status, e.getMessage());
+            }
+            catch (RuntimeException e){
+                sendError(ex, 500, String.valueOf(e.getMessage()));
+            }
+        }
+        catch (IOException ignored){
+            // client went away
+        }
+        finally{
+            ex.close();
+        }
+    }
+
+    private void health(HttpExchange ex) throws IOException{
+        StringBuilder sb = new StringBuilder("{");
+        Json.string(Json.field(sb, "status"), "ok");
+        Json.field(sb, "virtualThreads").append(virtualThreads);
+        sendJson(ex, 200, sb.append('}'));
+    }
+
+    private void report(HttpExchange ex) throws IOException{
+        String report;
+        lock.readLock().lock();
+        try{
+            report = fm.generateReport();
+        }
+        finally{
+            lock.readLock().unlock();
+        }
+        StringBuilder sb = new StringBuilder("{");
+        Json.string(Json.field(sb, "report"), report);
+        sendJson(ex, 200, sb.append('}'));
+    }
+
+    private void vehicles(HttpExchange ex) throws IOException, RequestException{
+        String path = ex.getRequestURI().getPath();
+        Map<String, String> query = query(ex);
+        String rest = path.length() > "/vehicles".length() ? path.substring("/vehicles/".length()) : "";
+
+        if (rest.isEmpty()){
+            Class<?> type = query.containsKey("type") ? typeOf(query.get("type")) : null;
+            List<Vehicle> found;
+            lock.readLock().lock();
+            try{
+                found = type == null ? fm.getFleetSnapshot() : fm.searchByType(type);
+            }
+            finally{
+                lock.readLock().unlock();
+            }
+            streamVehicles(ex, found);
+        }
+        else if (rest.equals("sorted")){
+            String by = query.getOrDefault("by", "speed");
+            int offset = intParam(query, "offset", 0);
+            int limit = intParam(query, "limit", Integer.MAX_VALUE);
+            List<Vehicle> page;
+            lock.readLock().lock();
+            try{
+                switch (by){
+                    case "speed": page = fm.getFleetPageBySpeed(offset, limit); break;
+                    case "model": page = fm.getFleetPageByModel(offset, limit); break;
+                    case "efficiency": page = fm.getFleetPageByEfficiency(offset, limit); break;
+                    default: throw new RequestException(400, "Sort by speed, model or efficiency, not " + by);
+                }
+            }
+            finally{
+                lock.readLock().unlock();
+            }
+            streamVehicles(ex, page);
+        }
+        else{
+            String id = URLDecoder.decode(rest, StandardCharsets.UTF_8);
+            Vehicle v;
+            lock.readLock().lock();
+            try{
+                v = fm.getVehicleById(id);
+            }
+            finally{
+                lock.readLock().unlock();
+            }
+            if (v == null) throw new RequestException(404, "Vehicle not found: " + id);
+            sendJson(ex, 200, Json.vehicle(new StringBuilder(), v));
+        }
+    }
+
+    private void journeys(HttpExchange ex) throws IOException, RequestException{
+        Map<String, String> query = query(ex);
+        if (query.containsKey("distance")){
+            double distance = doubleParam(query, "distance");
+            Map<String, String> results;
+            lock.writeLock().lock();
+            try{
+                results = fm.startAllJourneys(distance);
+            }
+            finally{
+                lock.writeLock().unlock();
+            }
+            try (Writer out = chunked(ex)){
+                StringBuilder sb = new StringBuilder("[");
+                boolean first = true;
+                for (Map.Entry<String, String> e : results.entrySet()){
+                    if (!first) sb.append(',');
+                    first = false;
+                    sb.append('{');
+                    Json.string(Json.field(sb, "id"), e.getKey());
+                    Json.string(Json.field(sb, "status"), e.getValue());
+                    sb.append('}');
+                    if (sb.length() >= FLUSH_AT){
+                        out.append(sb);
+                        sb.setLength(0);
+                    }
+                }
+                out.append(sb.append(']'));
+            }
+            return;
+        }
+
+        List<String> ids = new ArrayList<>();
+        List<Double> km = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(ex.getRequestBody(), StandardCharsets.UTF_8))){
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null){
+                lineNo++;
+                if (line.trim().isEmpty()) continue;
+                String[] tok = line.trim().split("\\s*,\\s*");
+                if (tok.length != 2) throw new RequestException(400, "Line " + lineNo + ": expected id,km");
+                try{
+                    km.add(Double.parseDouble(tok[1]));
+                }
+                catch (NumberFormatException e){
+                    throw new RequestException(400, "Line " + lineNo + ": invalid distance " + tok[1]);
+                }
+                ids.add(tok[0]);
+            }
+        }
+        if (ids.isEmpty()) throw new RequestException(400, "Give ?distance=<km> or a body of id,km lines");
+        double[] distances = new double[km.size()];
+        for (int i = 0; i < distances.length; i++) distances[i] = km.get(i);
+        JourneyBatch batch = new JourneyBatch(ids.size(), true);
+        lock.writeLock().lock();
+        try{
+            fm.runJourneys(ids.toArray(new String[0]), distances, batch);
+        }
+        finally{
+            lock.writeLock().unlock();
+        }
+        try (Writer out = chunked(ex)){
+            StringBuilder sb = new StringBuilder("{");
+            Json.field(sb, "ok").append(batch.size() - batch.failureCount());
+            Json.field(sb, "failed").append(batch.failureCount());
+            Json.number(Json.field(sb, "fuelUsed"), batch.totalFuelUsed());
+            Json.field(sb, "results").append('[');
+            for (int i = 0; i < batch.size(); i++){
+                if (i > 0) sb.append(',');
+                sb.append('{');
+                Json.string(Json.field(sb, "id"), ids.get(i));
+                Json.string(Json.field(sb, "status"), JourneyBatch.describe(batch.getStatus(i)));
+                Json.number(Json.field(sb, "fuelUsed"), batch.getFuelUsed(i));
+                if (batch.getDetail(i) != null) Json.string(Json.field(sb, "detail"), batch.getDetail(i));
+                sb.append('}');
+                if (sb.length() >= FLUSH_AT){
+                    out.append(sb);
+                    sb.setLength(0);
+                }
+            }
+            out.append(sb.append("]}"));
+        }
+    }
+
+    // the vehicles' state is read while streaming, outside the lock: every field is safe to read
+    // concurrently, a journey running meanwhile just shows up in later entries
+    private static void streamVehicles(HttpExchange ex, List<Vehicle> vehicles) throws IOException{
+        try (Writer out = chunked(ex)){
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < vehicles.size(); i++){
+                if (i > 0) sb.append(',');
+                Json.vehicle(sb, vehicles.get(i));
+                if (sb.length() >= FLUSH_AT){
+                    out.append(sb);
+                    sb.setLength(0);
+                }
+            }
+            out.append(sb.append(']'));
+        }
+    }
+
+    private static Writer chunked(HttpExchange ex) throws IOException{
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(200, 0);
+        return new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8), FLUSH_AT);
+    }
+
+    private static void sendJson(HttpExchange ex, int status, CharSequence body) throws IOException{
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()){
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange ex, int status, String message) throws IOException{
+        StringBuilder sb = new StringBuilder("{");
+        Json.string(Json.field(sb, "error"), message);
+        sendJson(ex, status, sb.append('}'));
+    }
+
+    private static Map<String, String> query(HttpExchange ex){
+        Map<String, String> out = new HashMap<>();
+        String q = ex.getRequestURI().getRawQuery();
+        if (q == null) return out;
+        for (String pair : q.split("&")){
+            int eq = pair.indexOf('=');
+            if (eq < 0) out.put(URLDecoder.decode(pair, StandardCharsets.UTF_8), "");
+            else out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int def) throws RequestException{
+        String s = query.get(name);
+        if (s == null) return def;
+        try{
+            int v = Integer.parseInt(s);
+            if (v < 0) throw new RequestException(400, name + " must not be negative");
+            return v;
+        }
+        catch (NumberFormatException e){
+            throw new RequestException(400, "Invalid " + name + ": " + s);
+        }
+    }
+
+    private static double doubleParam(Map<String, String> query, String name) throws RequestException{
+        String s = query.get(name);
+        try{
+            return Double.parseDouble(s);
+        }
+        catch (NumberFormatException | NullPointerException e){
+            throw new RequestException(400, "Invalid " + name + ": " + s);
+        }
+    }
+
+    private static Class<?> typeOf(String s) throws RequestException{
+        switch (s.toLowerCase(Locale.ROOT)){
+            case "car": return Car.class;
+            case "truck": return Truck.class;
+            case "bus": return Bus.class;
+            case "airplane": return Airplane.class;
+            case "cargoship": return CargoShip.class;
+            case "fuelconsumable": return FuelConsumable.class;
+            case "cargocarrier": return CargoCarrier.class;
+            case "passengercarrier": return PassengerCarrier.class;
+            case "maintainable": return Maintainable.class;
+            default: throw new RequestException(400, "Unknown type: " + s);
+        }
+    }
+}
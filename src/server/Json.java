@@ -0,0 +1,62 @@
+package server;
+
+import vehicles.*;
+import interfaces.*;
+
+//Minimal JSON writing for the query server, straight into a StringBuilder.
+final class Json{
+
+    private Json(){}
+
+    static StringBuilder string(StringBuilder sb, String s){
+        if (s == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++){
+            char c = s.charAt(i);
+            switch (c){
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+
+    // JSON has no NaN or infinity, they are written as null
+    static StringBuilder number(StringBuilder sb, double d){
+        if (Double.isNaN(d) || Double.isInfinite(d)) return sb.append("null");
+        if (d == Math.rint(d) && Math.abs(d) < 1e15) return sb.append((long) d);
+        return sb.append(d);
+    }
+
+    static StringBuilder field(StringBuilder sb, String name){
+        if (sb.charAt(sb.length() - 1) != '{') sb.append(',');
+        return string(sb, name).append(':');
+    }
+
+    static StringBuilder vehicle(StringBuilder sb, Vehicle v){
+        sb.append('{');
+        string(field(sb, "id"), v.getID());
+        string(field(sb, "type"), v.getClass().getSimpleName());
+        string(field(sb, "model"), v.getModel());
+        number(field(sb, "maxSpeed"), v.getMaxSpeed());
+        number(field(sb, "mileage"), v.getCurrentMileage());
+        number(field(sb, "fuelEfficiency"), v.calculateFuelEfficiency());
+        if (v instanceof FuelConsumable) number(field(sb, "fuelLevel"), ((FuelConsumable) v).getFuelLevel());
+        if (v instanceof CargoCarrier){
+            number(field(sb, "cargo"), ((CargoCarrier) v).getCurrentCargo());
+            number(field(sb, "cargoCapacity"), ((CargoCarrier) v).getCargoCapacity());
+        }
+        if (v instanceof PassengerCarrier){
+            field(sb, "passengers").append(((PassengerCarrier) v).getCurrentPassengers());
+            field(sb, "passengerCapacity").append(((PassengerCarrier) v).getPassengerCapacity());
+        }
+        if (v instanceof Maintainable) field(sb, "needsMaintenance").append(((Maintainable) v).needsMaintenance());
+        return sb.append('}');
+    }
+}
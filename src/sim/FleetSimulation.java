@@ -0,0 +1,289 @@
+package sim;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import fleet.FleetManager;
+import vehicles.*;
+import interfaces.*;
+import exceptions.*;
+
+//Discrete-event simulation of fleet operations on a simulated clock (hours).
+//
+//Every vehicle cycles through: depart -> arrive (after estimateJourneyTime) -> dwell -> depart...
+//A departure without enough fuel turns into a refuel stop, and a vehicle that has driven the
+//service interval since its last service (or has maintenance scheduled when it sets off) goes in
+//for maintenance on arrival. Journeys go through Vehicle.tryMove, so fuel and mileage change
+//exactly as with move().
+//
+//The simulation runs on copies of the vehicles taken when it is created (FleetManager.copyOf):
+//the caller's vehicles, and any fleet holding them, are never changed and get no change
+//notifications from the simulation's threads. getVehicles() gives the copies, in their state
+//after the last run.
+//
+//Vehicles never wait on each other, so the fleet is split into fixed shards of consecutive
+//vehicles, each with its own scheduler and random stream. A shard runs its whole horizon at
+//once, which keeps its vehicles and heap in cache, and shards can run in parallel. Results
+//only depend on the seed and the fleet, not on the number of threads.
+//
+//Each vehicle has exactly one pending event, so a shard's scheduler is a 4-ary heap of longs
+//packing (event time in ticks, vehicle index); handling an event replaces the heap top and
+//sifts it down, nothing is allocated per event. Ticks only order the events, every vehicle
+//keeps its exact event time.
+//
+//Journeys report to the installed event sink like any move(); install the silent sink for big runs.
+public final class FleetSimulation{
+
+    //nothing happens on arrival that needs its own event: the journey's departure already
+    //schedules either the next departure or the end of the service that follows it
+    private static final byte DEPART = 0;
+    private static final byte REFUELED = 1;
+    private static final byte SERVICED = 2;
+
+    private static final int LAND = 0;
+    private static final int AIR = 1;
+    private static final int WATER = 2;
+
+    //per domain: land, air, water
+    private static final double[] TRIP_MIN_KM = {100, 500, 500};
+    private static final double[] TRIP_MAX_KM = {800, 6000, 8000};
+    private static final double[] DWELL_MIN_H = {12, 6, 24};
+    private static final double[] DWELL_MAX_H = {36, 24, 96};
+    private static final double[] REFUEL_H = {0.5, 1.5, 12};
+    private static final double[] SERVICE_H = {8, 24, 72};
+    //a refuel stop fills up for at least this range
+    private static final double[] RANGE_KM = {1500, 12000, 20000};
+
+    private static final int SHARD_SIZE = 4096;
+
+    //heap keys: tick << INDEX_BITS | vehicle index, ordered as plain longs
+    private static final int INDEX_BITS = 30;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final double TICKS_PER_HOUR = 1 << 16;
+    private static final long MAX_TICK = (1L << (63 - INDEX_BITS)) - 1;
+
+    private final Vehicle[] vehicles;
+    private final byte[] domain;
+    private final byte[] next;
+    private final double[] time;
+    private final double[] plannedKm;
+    private final double[] kmSinceService;
+    private final long seed;
+    private double serviceIntervalKm = 10000;
+    private boolean parallel;
+
+    public FleetSimulation(List<Vehicle> fleet, long seed){
+        int n = fleet.size();
+        if (n > INDEX_MASK){
+            throw new IllegalArgumentException("Too many vehicles for one simulation: " + n);
+        }
+        this.vehicles = FleetManager.copyOf(fleet).toArray(new Vehicle[0]);
+        this.domain = new byte[n];
+        this.next = new byte[n];
+        this.time = new double[n];
+        this.plannedKm = new double[n];
+        this.kmSinceService = new double[n];
+        this.seed = seed;
+        for (int i = 0; i < n; i++){
+            Vehicle v = vehicles[i];
+            domain[i] = (byte) (v instanceof AirVehicle ? AIR : v instanceof WaterVehicle ? WATER : LAND);
+        }
+    }
+
+    public void setServiceIntervalKm(double km){
+        if (!(km > 0)){
+            throw new IllegalArgumentException("Service interval must be positive");
+        }
+        serviceIntervalKm = km;
+    }
+
+    // runs the shards on the common fork/join pool; each shard owns its copies, so nothing is shared
+    public void setParallel(boolean parallel){
+        this.parallel = parallel;
+    }
+
+    // the simulated copies, not the vehicles passed in
+    public List<Vehicle> getVehicles(){
+        return List.of(vehicles);
+    }
+
+    public SimulationReport run(double days){
+        if (!(days >= 0)){
+            throw new IllegalArgumentException("Days cannot be negative");
+        }
+        double horizon = days * 24.0;
+        if (horizon * TICKS_PER_HOUR >= MAX_TICK){
+            throw new IllegalArgumentException("Cannot simulate more than " + (long) (MAX_TICK / TICKS_PER_HOUR / 24) + " days");
+        }
+        long wallStart = System.nanoTime();
+        int n = vehicles.length;
+        int dayCount = (int) Math.ceil(days);
+
+        // random streams are split off in shard order, so every shard gets the same one on every run
+        Shard[] shards = new Shard[(n + SHARD_SIZE - 1) / SHARD_SIZE];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int s = 0; s < shards.length; s++){
+            shards[s] = new Shard(s * SHARD_SIZE, Math.min(n, (s + 1) * SHARD_SIZE), root.split(), horizon, dayCount);
+        }
+        IntStream ids = IntStream.range(0, shards.length);
+        (parallel ? ids.parallel() : ids).forEach(s -> shards[s].run());
+
+        // combined in shard order, so the sums do not depend on which shard finished first
+        long events = 0, journeys = 0, refuels = 0, maintenance = 0;
+        double km = 0, fuel = 0, movingHours = 0;
+        double[] kmPerDay = new double[dayCount];
+        for (Shard s : shards){
+            events += s.events;
+            journeys += s.journeys;
+            refuels += s.refuels;
+            maintenance += s.maintenance;
+            km += s.km;
+            fuel += s.fuel;
+            movingHours += s.movingHours;
+            for (int day = 0; day < dayCount; day++) kmPerDay[day] += s.kmPerDay[day];
+        }
+        return new SimulationReport(n, days, events, journeys, refuels, maintenance,
+                km, fuel, movingHours, kmPerDay, System.nanoTime() - wallStart);
+    }
+
+    //vehicles [from, to) with their own scheduler, random stream and totals
+    private final class Shard{
+        final int from, to;
+        final SplittableRandom rnd;
+        final double horizon;
+        final long[] heap;
+        final double[] kmPerDay;
+        long events, journeys, refuels, maintenance;
+        double km, fuel, movingHours;
+
+        Shard(int from, int to, SplittableRandom rnd, double horizon, int days){
+            this.from = from;
+            this.to = to;
+            this.rnd = rnd;
+            this.horizon = horizon;
+            this.heap = new long[to - from];
+            this.kmPerDay = new double[days];
+        }
+
+        void run(){
+            int n = heap.length;
+            // first departures are spread over the first dwell period
+            for (int i = from; i < to; i++){
+                time[i] = dwell(i);
+                next[i] = DEPART;
+                plannedKm[i] = trip(i);
+                heap[i - from] = key(time[i], i);
+            }
+            for (int k = (n - 2) / 4; k >= 0; k--) siftDown(k);
+
+            while (n > 0){
+                int i = (int) (heap[0] & INDEX_MASK);
+                double t = time[i];
+                if (t >= horizon) break;
+                Vehicle v = vehicles[i];
+                double when;
+                events++;
+                switch (next[i]){
+                    case DEPART:{
+                        when = depart(i, t);
+                        break;
+                    }
+                    case REFUELED:{
+                        // filled up, leaves straight away on the journey it could not start before
+                        try{
+                            ((FuelConsumable) v).refuel(Math.max(RANGE_KM[domain[i]], plannedKm[i] * 1.1) / v.calculateFuelEfficiency());
+                            refuels++;
+                            when = depart(i, t);
+                        }
+                        catch (InvalidOperationException e){
+                            when = Double.POSITIVE_INFINITY;
+                        }
+                        break;
+                    }
+                    default:{
+                        ((Maintainable) v).performMaintenance();
+                        maintenance++;
+                        kmSinceService[i] = 0;
+                        next[i] = DEPART;
+                        plannedKm[i] = trip(i);
+                        when = t + dwell(i);
+                    }
+                }
+                time[i] = when;
+                heap[0] = key(when, i);
+                siftDown(0);
+            }
+        }
+
+        // starts vehicle i's planned journey at t, returns the time of its next event
+        private double depart(int i, double t){
+            Vehicle v = vehicles[i];
+            double distance = plannedKm[i];
+            double eff = v.calculateFuelEfficiency();
+            byte outcome = v.tryMove(distance);
+            if (outcome == Outcome.OK){
+                double hours = v.estimateJourneyTime(distance);
+                journeys++;
+                km += distance;
+                fuel += eff > 0 ? distance / eff : 0.0;
+                movingHours += Math.min(hours, horizon - t);
+                kmPerDay[(int) (t / 24.0)] += distance;
+                kmSinceService[i] += distance;
+                double arrival = t + hours;
+                if (v instanceof Maintainable && (kmSinceService[i] >= serviceIntervalKm
+                        || ((Maintainable) v).isMaintenanceScheduled())){
+                    next[i] = SERVICED;
+                    return arrival + SERVICE_H[domain[i]];
+                }
+                next[i] = DEPART;
+                plannedKm[i] = trip(i);
+                return arrival + dwell(i);
+            }
+            if (outcome == Outcome.INSUFFICIENT_FUEL && v instanceof FuelConsumable){
+                next[i] = REFUELED;
+                return t + REFUEL_H[domain[i]];
+            }
+            return Double.POSITIVE_INFINITY;   // cannot move at all, parked for the rest of the run
+        }
+
+        private double trip(int i){
+            int d = domain[i];
+            return TRIP_MIN_KM[d] + rnd.nextDouble() * (TRIP_MAX_KM[d] - TRIP_MIN_KM[d]);
+        }
+
+        private double dwell(int i){
+            int d = domain[i];
+            return DWELL_MIN_H[d] + rnd.nextDouble() * (DWELL_MAX_H[d] - DWELL_MIN_H[d]);
+        }
+
+        // 4-ary heap: the children of k are 4k+1 .. 4k+4, next to each other in memory
+        private void siftDown(int k){
+            int n = heap.length;
+            long key = heap[k];
+            while (true){
+                int first = 4 * k + 1;
+                if (first >= n) break;
+                int last = Math.min(first + 4, n);
+                int min = first;
+                long minKey = heap[first];
+                for (int c = first + 1; c < last; c++){
+                    if (heap[c] < minKey){
+                        min = c;
+                        minKey = heap[c];
+                    }
+                }
+                if (minKey >= key) break;
+                heap[k] = minKey;
+                k = min;
+            }
+            heap[k] = key;
+        }
+    }
+
+    private static long key(double t, int i){
+        double ticks = t * TICKS_PER_HOUR;
+        long tick = ticks < MAX_TICK ? (long) ticks : MAX_TICK;
+        return tick << INDEX_BITS | i;
+    }
+}
@@ -0,0 +1,81 @@
+package sim;
+
+import java.util.Locale;
+
+//Totals of one FleetSimulation run. Times are simulated hours unless the name says otherwise.
+public final class SimulationReport{
+
+    private final int vehicles;
+    private final double days;
+    private final long events;
+    private final long journeys;
+    private final long refuels;
+    private final long maintenance;
+    private final double totalKm;
+    private final double fuelUsed;
+    private final double movingHours;
+    private final double[] kmPerDay;
+    private final long wallNanos;
+
+    SimulationReport(int vehicles, double days, long events, long journeys, long refuels, long maintenance,
+                     double totalKm, double fuelUsed, double movingHours, double[] kmPerDay, long wallNanos){
+        this.vehicles = vehicles;
+        this.days = days;
+        this.events = events;
+        this.journeys = journeys;
+        this.refuels = refuels;
+        this.maintenance = maintenance;
+        this.totalKm = totalKm;
+        this.fuelUsed = fuelUsed;
+        this.movingHours = movingHours;
+        this.kmPerDay = kmPerDay;
+        this.wallNanos = wallNanos;
+    }
+
+    public int getVehicles(){ return vehicles; }
+    public double getSimulatedDays(){ return days; }
+    public long getEventsProcessed(){ return events; }
+    public long getJourneys(){ return journeys; }
+    public long getRefuels(){ return refuels; }
+    public long getMaintenanceStops(){ return maintenance; }
+    public double getTotalKm(){ return totalKm; }
+    public double getFuelUsed(){ return fuelUsed; }
+    public long getWallNanos(){ return wallNanos; }
+
+    public double getKmPerSimulatedDay(){
+        return days > 0 ? totalKm / days : 0.0;
+    }
+
+    // share of vehicle-hours spent moving
+    public double getUtilization(){
+        double available = vehicles * days * 24.0;
+        return available > 0 ? movingHours / available : 0.0;
+    }
+
+    // km driven on each simulated day, credited to the day the journey started
+    public double[] getKmPerDay(){
+        return kmPerDay.clone();
+    }
+
+    public double getEventsPerSecond(){
+        return wallNanos > 0 ? events * 1e9 / wallNanos : 0.0;
+    }
+
+    @Override
+    public String toString(){
+        return String.format(Locale.ROOT,
+                "Simulation Report%n" +
+                "Vehicles: %d%n" +
+                "Simulated days: %.1f%n" +
+                "Journeys: %d%n" +
+                "Refuel stops: %d%n" +
+                "Maintenance stops: %d%n" +
+                "Total distance: %.0f km%n" +
+                "Km per simulated day: %.0f%n" +
+                "Fuel used: %.0f%n" +
+                "Fleet utilization: %.1f%%%n" +
+                "Events processed: %d in %.2f s (%.0f events/s)%n",
+                vehicles, days, journeys, refuels, maintenance, totalKm, getKmPerSimulatedDay(), fuelUsed,
+                getUtilization() * 100, events, wallNanos / 1e9, getEventsPerSecond());
+    }
+}
@@ -1,5 +1,7 @@
 package vehicles;
 
+import events.Events;
+
 import interfaces.FuelConsumable;
 import interfaces.PassengerCarrier;
 import exceptions.InsufficientFuelException;
@@ -10,36 +12,46 @@ import interfaces.Maintainable;
 
 public class Airplane extends AirVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable{
 
-    private double fuelLevel;
+    private final AtomicDouble fuelLevel = new AtomicDouble();
     private final int passengerCapacity;
-    private int currentPassengers;
+    private final AtomicCounter currentPassengers = new AtomicCounter();
     private final double cargoCapacity;
-    private double currentCargo;
-    private boolean maintenanceNeeded;
+    private final AtomicDouble currentCargo = new AtomicDouble();
+    private volatile boolean maintenanceNeeded;
 
     public Airplane(String id, String model, double maxSpeed, double currentMileage, double maxAltitude)throws InvalidOperationException{
         super(id, model,maxSpeed,currentMileage,maxAltitude);
-        this.fuelLevel = 0.0;
         this.passengerCapacity = 200;
         this.cargoCapacity = 10000.0;
     }
 
     @Override
-    public void move(double distance) throws InvalidOperationException, InsufficientFuelException {
-        if (distance<0) {
-            throw new InvalidOperationException("Invalid Distance");
+    public byte tryMove(double distance){
+        if (distance<0){
+            return Outcome.INVALID;
         }
 
         double fuelNeeded = distance/calculateFuelEfficiency();
 
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            setCurrentMileage(getCurrentMileage()+distance);
-            System.out.println("Flying at " + getMaxAltitude() + " meters for " + distance + " km");
-        } 
-        else{
-            throw new InsufficientFuelException("Not enough fuel to fly " + distance + " km");
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return Outcome.INSUFFICIENT_FUEL;
+        }
+        addMileage(distance);
+        Events.sink().journeyCompleted(this, distance);
+        return Outcome.OK;
+    }
+
+    @Override
+    public String describeJourney(double distance){
+        return "Flying at " + getMaxAltitude() + " meters for " + distance + " km";
+    }
+
+    @Override
+    public String moveFailure(byte outcome, double distance){
+        if (outcome == Outcome.INVALID){
+            return "Invalid Distance";
         }
+        return "Not enough fuel to fly " + distance + " km";
     }
     @Override
     public double calculateFuelEfficiency(){
@@ -51,23 +63,33 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         if (amount <= 0){
         throw new InvalidOperationException("Refuel amount must be more than 0");
     }
-    fuelLevel+=amount;
+    fuelLevel.add(amount);
+    notifyChanged();
     }
 
     @Override
     public double getFuelLevel(){
-        return fuelLevel;
+        return fuelLevel.get();
     }
 
     @Override
     public double consumeFuel(double distance)throws InsufficientFuelException{
-        double fuelNeeded=distance/calculateFuelEfficiency();
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            return fuelNeeded;
+        double used = tryConsumeFuel(distance);
+        if (Double.isNaN(used)){
+            throw new InsufficientFuelException(fuelFailure(distance));
         }
+        return used;
+    }
 
-        throw new InsufficientFuelException("Not enough fuel for " + distance + "km");
+    @Override
+    public double tryConsumeFuel(double distance){
+        FuelConsumable.checkDistance(distance);
+        double fuelNeeded=distance/calculateFuelEfficiency();
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return NOT_ENOUGH_FUEL;
+        }
+        notifyChanged();
+        return fuelNeeded;
     }
 
     @Override
@@ -75,10 +97,10 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         if (count<=0){
         throw new InvalidOperationException("Passenger count must be more than 0");
     }
-    if (currentPassengers+count > passengerCapacity){
+    if (!currentPassengers.addIfAtMost(count, passengerCapacity)){
         throw new OverloadException("Passenger overflow:Capacity exceeded");
     }
-    currentPassengers += count;
+    notifyChanged();
     }
 
     @Override
@@ -86,10 +108,10 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         if (count <= 0){
         throw new InvalidOperationException("Passenger count must be more than 0");
     }
-    if (count>currentPassengers){
+    if (!currentPassengers.subtractIfAtLeast(count)){
         throw new InvalidOperationException("Cannot disembark more passengers than present");
     }
-    currentPassengers -= count;
+    notifyChanged();
     }
 
     @Override
@@ -99,7 +121,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
 
     @Override
     public int getCurrentPassengers(){
-        return currentPassengers;
+        return currentPassengers.get();
     }
 
     @Override
@@ -107,10 +129,10 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         if (weight <= 0){
             throw new InvalidOperationException("Cargo weight must be more than 0");
         }
-        if (currentCargo+weight > cargoCapacity){
+        if (!currentCargo.addIfAtMost(weight, cargoCapacity)){
             throw new OverloadException("Cargo overload: exceeds capacity of " + cargoCapacity + " kg");
         }
-        currentCargo += weight;
+        notifyChanged();
     }
 
     @Override
@@ -118,10 +140,10 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         if (weight <= 0){
             throw new InvalidOperationException("Unload weight must be positive");
         }
-        if (weight>currentCargo){
-            throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + currentCargo + " kg)");
+        if (!currentCargo.subtractIfAtLeast(weight)){
+            throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + currentCargo.get() + " kg)");
         }
-        currentCargo -= weight;
+        notifyChanged();
     }
 
     @Override
@@ -131,12 +153,13 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
 
     @Override
     public double getCurrentCargo(){
-        return currentCargo;
+        return currentCargo.get();
     }
 
     @Override
     public void scheduleMaintenance(){
         maintenanceNeeded = true;
+        notifyChanged();
     }
 
     @Override
@@ -144,9 +167,15 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         return ((getCurrentMileage()>10000) || maintenanceNeeded);
     }
 
+    @Override
+    public boolean isMaintenanceScheduled(){
+        return maintenanceNeeded;
+    }
+
     @Override
     public void performMaintenance(){
         maintenanceNeeded = false;
-        System.out.println("Airplane maintenance done.");
+        notifyChanged();
+        Events.sink().maintenanceDone(this, "Airplane maintenance done.");
     }
 }
@@ -0,0 +1,31 @@
+package vehicles;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+//int counterpart of AtomicDouble, for passenger counts.
+final class AtomicCounter{
+
+    private final AtomicInteger value = new AtomicInteger();
+
+    int get(){
+        return value.get();
+    }
+
+    // adds delta unless the result would go over limit
+    boolean addIfAtMost(int delta, int limit){
+        while (true){
+            int current = value.get();
+            if ((long) current + delta > limit) return false;
+            if (value.compareAndSet(current, current + delta)) return true;
+        }
+    }
+
+    // subtracts amount unless less than amount is left
+    boolean subtractIfAtLeast(int amount){
+        while (true){
+            int current = value.get();
+            if (current < amount) return false;
+            if (value.compareAndSet(current, current - amount)) return true;
+        }
+    }
+}
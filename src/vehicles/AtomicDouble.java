@@ -0,0 +1,55 @@
+package vehicles;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//Lock-free double held as raw IEEE bits in an AtomicLong. The conditional updates are
+//compare-and-set loops, so a check and its update can never be split by another thread
+//(no overdrawn fuel, no overloaded cargo hold).
+final class AtomicDouble{
+
+    private final AtomicLong bits;
+
+    AtomicDouble(){
+        this(0.0);
+    }
+
+    AtomicDouble(double value){
+        bits = new AtomicLong(Double.doubleToRawLongBits(value));
+    }
+
+    double get(){
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    void set(double value){
+        bits.set(Double.doubleToRawLongBits(value));
+    }
+
+    double add(double delta){
+        while (true){
+            long current = bits.get();
+            double next = Double.longBitsToDouble(current) + delta;
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) return next;
+        }
+    }
+
+    // adds delta unless the result would go over limit
+    boolean addIfAtMost(double delta, double limit){
+        while (true){
+            long current = bits.get();
+            double next = Double.longBitsToDouble(current) + delta;
+            if (!(next <= limit)) return false;      // also refuses NaN
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) return true;
+        }
+    }
+
+    // subtracts amount unless less than amount is left
+    boolean subtractIfAtLeast(double amount){
+        while (true){
+            long current = bits.get();
+            double value = Double.longBitsToDouble(current);
+            if (!(value >= amount)) return false;    // also refuses NaN
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(value - amount))) return true;
+        }
+    }
+}
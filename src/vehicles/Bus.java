@@ -1,5 +1,7 @@
 package vehicles;
 
+import events.Events;
+
 import interfaces.FuelConsumable;
 import interfaces.PassengerCarrier;
 import interfaces.CargoCarrier;
@@ -11,37 +13,46 @@ import exceptions.InsufficientFuelException;
 
 public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable{
 
-    private double fuelLevel;
+    private final AtomicDouble fuelLevel = new AtomicDouble();
     private final int passengerCapacity;
-    private int currentPassengers;
+    private final AtomicCounter currentPassengers = new AtomicCounter();
     private final double cargoCapacity;
-    private double currentCargo;
-    private boolean maintenanceNeeded;
+    private final AtomicDouble currentCargo = new AtomicDouble();
+    private volatile boolean maintenanceNeeded;
 
     public Bus(String id, String model, double maxSpeed, double currentMileage, int numWheels)throws InvalidOperationException{
         super(id, model, maxSpeed, currentMileage, numWheels) ;
-        this.fuelLevel = 0.0;
         this.passengerCapacity = 50;
         this.cargoCapacity = 500.0;
-        this.currentCargo = 0.0;
     }
 
     @Override
-    public void move(double distance) throws InvalidOperationException, InsufficientFuelException {
-        if (distance<0) {
-            throw new InvalidOperationException("Distance cannot be less than 0");
+    public byte tryMove(double distance){
+        if (distance<0){
+            return Outcome.INVALID;
         }
 
         double fuelNeeded = distance/calculateFuelEfficiency();
 
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            setCurrentMileage(getCurrentMileage()+distance);
-            System.out.println("Transporting passengers and cargo for " + distance + " km...");
-        } 
-        else{
-            throw new InsufficientFuelException("Not enough fuel for bus to travel " + distance + " km");
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return Outcome.INSUFFICIENT_FUEL;
+        }
+        addMileage(distance);
+        Events.sink().journeyCompleted(this, distance);
+        return Outcome.OK;
+    }
+
+    @Override
+    public String describeJourney(double distance){
+        return "Transporting passengers and cargo for " + distance + " km...";
+    }
+
+    @Override
+    public String moveFailure(byte outcome, double distance){
+        if (outcome == Outcome.INVALID){
+            return "Distance cannot be less than 0";
         }
+        return "Not enough fuel for bus to travel " + distance + " km";
     }
 
 
@@ -55,23 +66,33 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (amount <= 0){
         throw new InvalidOperationException("Refuel amount must be more than 0");
     }
-    fuelLevel+=amount;
+    fuelLevel.add(amount);
+    notifyChanged();
     }
 
     @Override
     public double getFuelLevel(){
-        return fuelLevel;
+        return fuelLevel.get();
     }
 
     @Override
     public double consumeFuel(double distance)throws InsufficientFuelException{
-        double fuelNeeded=distance/calculateFuelEfficiency();
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            return fuelNeeded;
+        double used = tryConsumeFuel(distance);
+        if (Double.isNaN(used)){
+            throw new InsufficientFuelException(fuelFailure(distance));
         }
+        return used;
+    }
 
-        throw new InsufficientFuelException("Not enough fuel for " + distance + "km");
+    @Override
+    public double tryConsumeFuel(double distance){
+        FuelConsumable.checkDistance(distance);
+        double fuelNeeded=distance/calculateFuelEfficiency();
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return NOT_ENOUGH_FUEL;
+        }
+        notifyChanged();
+        return fuelNeeded;
     }
 
     @Override
@@ -79,10 +100,10 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (count<=0){
         throw new InvalidOperationException("Passenger count must be more than 0");
     }
-    if (currentPassengers+count > passengerCapacity){
+    if (!currentPassengers.addIfAtMost(count, passengerCapacity)){
         throw new OverloadException("Passenger overflow:Capacity exceeded");
     }
-    currentPassengers += count;
+    notifyChanged();
     }
 
     @Override
@@ -90,10 +111,10 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (count <= 0){
         throw new InvalidOperationException("Passenger count must be more than 0");
     }
-    if (count>currentPassengers){
+    if (!currentPassengers.subtractIfAtLeast(count)){
         throw new InvalidOperationException("Cannot disembark more passengers than present");
     }
-    currentPassengers -= count;
+    notifyChanged();
     }
 
     @Override
@@ -103,7 +124,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public int getCurrentPassengers(){
-        return currentPassengers;
+        return currentPassengers.get();
     }
 
     @Override
@@ -111,10 +132,10 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (weight <= 0){
             throw new InvalidOperationException("Cargo weight must be more than 0");
         }
-        if (currentCargo+weight > cargoCapacity){
+        if (!currentCargo.addIfAtMost(weight, cargoCapacity)){
             throw new OverloadException("Cargo overload: exceeds capacity of " + cargoCapacity + " kg");
         }
-        currentCargo += weight;
+        notifyChanged();
     }
 
     @Override
@@ -122,10 +143,10 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (weight <= 0){
             throw new InvalidOperationException("Unload weight must be positive");
         }
-        if (weight>currentCargo){
-            throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + currentCargo + " kg)");
+        if (!currentCargo.subtractIfAtLeast(weight)){
+            throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + currentCargo.get() + " kg)");
         }
-        currentCargo -= weight;
+        notifyChanged();
     }
 
     @Override
@@ -135,12 +156,13 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public double getCurrentCargo(){
-        return currentCargo;
+        return currentCargo.get();
     }
     
     @Override
     public void scheduleMaintenance(){
         maintenanceNeeded = true;
+        notifyChanged();
     }
 
     @Override
@@ -148,9 +170,15 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         return ((getCurrentMileage()>10000) || maintenanceNeeded);
     }
 
+    @Override
+    public boolean isMaintenanceScheduled(){
+        return maintenanceNeeded;
+    }
+
     @Override
     public void performMaintenance(){
         maintenanceNeeded = false;
-        System.out.println("Bus maintenance done.");
+        notifyChanged();
+        Events.sink().maintenanceDone(this, "Bus maintenance done.");
     }
 }
@@ -1,5 +1,7 @@
 package vehicles;
 
+import events.Events;
+
 import exceptions.InvalidOperationException;
 import exceptions.OverloadException;
 import exceptions.InsufficientFuelException;
@@ -10,35 +12,45 @@ import interfaces.Maintainable;
 
 public class Car extends LandVehicle implements FuelConsumable,PassengerCarrier,Maintainable{
 
-    private double fuelLevel;
+    private final AtomicDouble fuelLevel = new AtomicDouble();
     private final int passengerCapacity;
-    private int currentPassengers;
-    private boolean maintenanceNeeded;
+    private final AtomicCounter currentPassengers = new AtomicCounter();
+    private volatile boolean maintenanceNeeded;
 
     public Car(String id,String model,double maxSpeed,double currentMileage,int numWheels)throws InvalidOperationException{
         super(id, model, maxSpeed, currentMileage, numWheels);
-        this.fuelLevel=0.0;
         this.passengerCapacity=5;
         //passengers will automatically be set to 0 and maintainceNeeded will automatically be false
 
     }
 
     @Override
-    public void move(double distance)throws InvalidOperationException,InsufficientFuelException{
-        if(distance<0){
-            throw new InvalidOperationException("Distance can't be less than 0");
+    public byte tryMove(double distance){
+        if (distance<0){
+            return Outcome.INVALID;
         }
 
         double fuelNeeded=distance/calculateFuelEfficiency();
 
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            setCurrentMileage(getCurrentMileage()+distance);
-            System.out.println("Driving on road for "+distance+"km");
-        } 
-        else{
-            throw new InsufficientFuelException("Not enough fuel to drive for " +distance +"km");
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return Outcome.INSUFFICIENT_FUEL;
+        }
+        addMileage(distance);
+        Events.sink().journeyCompleted(this, distance);
+        return Outcome.OK;
+    }
+
+    @Override
+    public String describeJourney(double distance){
+        return "Driving on road for "+distance+"km";
+    }
+
+    @Override
+    public String moveFailure(byte outcome, double distance){
+        if (outcome == Outcome.INVALID){
+            return "Distance can't be less than 0";
         }
+        return "Not enough fuel to drive for " +distance +"km";
     }
 
     @Override
@@ -51,23 +63,33 @@ public class Car extends LandVehicle implements FuelConsumable,PassengerCarrier,
         if (amount <= 0){
         throw new InvalidOperationException("Refuel amount must be more than 0");
     }
-    fuelLevel+=amount;
+    fuelLevel.add(amount);
+    notifyChanged();
     }
 
     @Override
     public double getFuelLevel(){
-        return fuelLevel;
+        return fuelLevel.get();
     }
 
     @Override
     public double consumeFuel(double distance)throws InsufficientFuelException{
-        double fuelNeeded=distance/calculateFuelEfficiency();
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            return fuelNeeded;
+        double used = tryConsumeFuel(distance);
+        if (Double.isNaN(used)){
+            throw new InsufficientFuelException(fuelFailure(distance));
         }
+        return used;
+    }
 
-        throw new InsufficientFuelException("Not enough fuel for " + distance + "km");
+    @Override
+    public double tryConsumeFuel(double distance){
+        FuelConsumable.checkDistance(distance);
+        double fuelNeeded=distance/calculateFuelEfficiency();
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return NOT_ENOUGH_FUEL;
+        }
+        notifyChanged();
+        return fuelNeeded;
     }
 
     @Override
@@ -75,10 +97,10 @@ public class Car extends LandVehicle implements FuelConsumable,PassengerCarrier,
         if (count<=0){
         throw new InvalidOperationException("Passenger count must be more than 0");
     }
-    if (currentPassengers+count > passengerCapacity){
+    if (!currentPassengers.addIfAtMost(count, passengerCapacity)){
         throw new OverloadException("Passenger overflow:Capacity exceeded");
     }
-    currentPassengers += count;
+    notifyChanged();
     }
     
 
@@ -87,10 +109,10 @@ public class Car extends LandVehicle implements FuelConsumable,PassengerCarrier,
         if (count <= 0){
         throw new InvalidOperationException("Passenger count must be more than 0");
     }
-    if (count>currentPassengers){
+    if (!currentPassengers.subtractIfAtLeast(count)){
         throw new InvalidOperationException("Cannot disembark more passengers than present");
     }
-    currentPassengers -= count;
+    notifyChanged();
     }
 
     @Override
@@ -100,12 +122,13 @@ public class Car extends LandVehicle implements FuelConsumable,PassengerCarrier,
 
     @Override
     public int getCurrentPassengers(){
-        return currentPassengers;
+        return currentPassengers.get();
     }
 
     @Override
     public void scheduleMaintenance(){
         this.maintenanceNeeded = true;
+        notifyChanged();
     }
 
     @Override
@@ -113,9 +136,15 @@ public class Car extends LandVehicle implements FuelConsumable,PassengerCarrier,
         return ((getCurrentMileage()>10000) || maintenanceNeeded);
     }
 
+    @Override
+    public boolean isMaintenanceScheduled(){
+        return maintenanceNeeded;
+    }
+
     @Override
     public void performMaintenance(){
         this.maintenanceNeeded = false;
-        System.out.println("Car maintenance has been done.");
+        notifyChanged();
+        Events.sink().maintenanceDone(this, "Car maintenance has been done.");
     }
 }
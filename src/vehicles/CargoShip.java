@@ -1,5 +1,7 @@
 package vehicles;
 
+import events.Events;
+
 import exceptions.InvalidOperationException;
 import exceptions.OverloadException;
 import exceptions.InsufficientFuelException;
@@ -10,40 +12,48 @@ import interfaces.FuelConsumable;
 public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainable, FuelConsumable {
 
     private final double cargoCapacity;
-    private double currentCargo;
-    private boolean maintenanceNeeded;
-    private double fuelLevel;
+    private final AtomicDouble currentCargo = new AtomicDouble();
+    private volatile boolean maintenanceNeeded;
+    private final AtomicDouble fuelLevel = new AtomicDouble();
 
     public CargoShip(String id,String model,double maxSpeed,double currentMileage,boolean hasSail)throws InvalidOperationException{
         super(id,model,maxSpeed,currentMileage,hasSail);
         this.cargoCapacity = 50000.0;
-        this.currentCargo = 0.0;
         this.maintenanceNeeded = false;
-        this.fuelLevel = 0.0;
     }
 
     @Override
-    public void move(double distance) throws InvalidOperationException, InsufficientFuelException{
+    public byte tryMove(double distance){
         if (distance<0){
-            throw new InvalidOperationException("Distance cannot be less than 0");
+            return Outcome.INVALID;
         }
 
         double efficiency = calculateFuelEfficiency();
         if (efficiency==0){                                          // if fuel efficiency is 0, that means cargoship is sailing
-            setCurrentMileage(getCurrentMileage() + distance);
-            System.out.println("Sailing with cargo for " + distance + " km using sails");
+            addMileage(distance);
+            Events.sink().journeyCompleted(this, distance);
+            return Outcome.OK;
         }
-        else{                                                        // using fuel
-            double fuelNeeded = distance/efficiency;
-            if (fuelLevel >= fuelNeeded){
-                fuelLevel -= fuelNeeded;
-                setCurrentMileage(getCurrentMileage() + distance);
-                System.out.println("Sailing with cargo for " + distance + " km using fuel");
-            } 
-            else{
-                throw new InsufficientFuelException("Not enough fuel to sail " + distance + " km");
-            }
+        double fuelNeeded = distance/efficiency;                     // using fuel
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return Outcome.INSUFFICIENT_FUEL;
         }
+        addMileage(distance);
+        Events.sink().journeyCompleted(this, distance);
+        return Outcome.OK;
+    }
+
+    @Override
+    public String describeJourney(double distance){
+        return "Sailing with cargo for " + distance + (hasSail() ? " km using sails" : " km using fuel");
+    }
+
+    @Override
+    public String moveFailure(byte outcome, double distance){
+        if (outcome == Outcome.INVALID){
+            return "Distance cannot be less than 0";
+        }
+        return "Not enough fuel to sail " + distance + " km";
     }
 
     @Override
@@ -59,10 +69,10 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (weight <= 0){
             throw new InvalidOperationException("Cargo weight must be positive");
         }
-        if (currentCargo+weight > cargoCapacity){
+        if (!currentCargo.addIfAtMost(weight, cargoCapacity)){
             throw new OverloadException("Cargo overload: exceeds capacity of " + cargoCapacity + " kg");
         }
-        currentCargo += weight;
+        notifyChanged();
     }
 
     @Override
@@ -70,10 +80,10 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (weight<=0){
             throw new InvalidOperationException("Unload weight must be positive");
         }
-        if (weight>currentCargo){
-            throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + currentCargo + " kg)");
+        if (!currentCargo.subtractIfAtLeast(weight)){
+            throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + currentCargo.get() + " kg)");
         }
-        currentCargo -= weight;
+        notifyChanged();
     }
 
     @Override
@@ -83,12 +93,13 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
 
     @Override
     public double getCurrentCargo(){
-        return currentCargo;
+        return currentCargo.get();
     }
 
     @Override
     public void scheduleMaintenance(){
         maintenanceNeeded = true;
+        notifyChanged();
     }
 
     @Override
@@ -96,10 +107,16 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         return getCurrentMileage()>10000 || maintenanceNeeded;
     }
 
+    @Override
+    public boolean isMaintenanceScheduled(){
+        return maintenanceNeeded;
+    }
+
     @Override
     public void performMaintenance() {
         maintenanceNeeded = false;
-        System.out.println("Cargo ship maintenance done.");
+        notifyChanged();
+        Events.sink().maintenanceDone(this, "Cargo ship maintenance done.");
     }
 
     @Override
@@ -110,24 +127,40 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (amount <= 0){
             throw new InvalidOperationException("Refuel amount must be more than 0");
         }
-        fuelLevel += amount;
+        fuelLevel.add(amount);
+        notifyChanged();
     }
 
     @Override
     public double getFuelLevel() {
-        return hasSail()?0.0 : fuelLevel;
+        return hasSail()?0.0 : fuelLevel.get();
     }
 
     @Override
     public double consumeFuel(double distance) throws InsufficientFuelException{
+        double used = tryConsumeFuel(distance);
+        if (Double.isNaN(used)){
+            throw new InsufficientFuelException(fuelFailure(distance));
+        }
+        return used;
+    }
+
+    @Override
+    public String fuelFailure(double distance){
+        return "Not enough fuel for " + distance + " km";
+    }
+
+    @Override
+    public double tryConsumeFuel(double distance){
+        FuelConsumable.checkDistance(distance);
         if (hasSail()){
             return 0.0;
         }
         double needed = distance/calculateFuelEfficiency();
-        if (fuelLevel >= needed){
-            fuelLevel -= needed;
-            return needed;
+        if (!fuelLevel.subtractIfAtLeast(needed)){
+            return NOT_ENOUGH_FUEL;
         }
-        throw new InsufficientFuelException("Not enough fuel for " + distance + " km");
+        notifyChanged();
+        return needed;
     }
 }
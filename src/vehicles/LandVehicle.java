@@ -11,7 +11,7 @@ abstract class LandVehicle extends Vehicle{
     }
 
     @Override
-    double estimateJourneyTime(double distance){
+    public double estimateJourneyTime(double distance){
 
         double base_time = distance / getMaxSpeed();
         return base_time*1.1;
@@ -0,0 +1,113 @@
+package vehicles;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Interns model names to small int codes. A vehicle keeps its model's Model (name and code) instead
+//of its own copy of the name, so a fleet loaded from a file holds each distinct model string once,
+//and two vehicles have the same model exactly when their codes are equal.
+//
+//The catalog only holds its Models weakly: the vehicles using a model keep it alive. Once the last
+//of them is garbage, the name is dropped and its code is handed to the next new name, so the
+//catalog follows the models in use rather than every name ever seen. A code is never reused while
+//any vehicle carries it. Lookups of a known name and code -> name reads take no lock.
+public final class ModelCatalog{
+
+    //code used for a null model
+    public static final int NONE = -1;
+
+    //what a vehicle holds
+    static final class Model{
+        final String name;
+        final int code;
+
+        private Model(String name, int code){
+            this.name = name;
+            this.code = code;
+        }
+    }
+
+    //the catalog's entry for a name; enqueued once no vehicle holds the Model any more
+    private static final class Entry extends WeakReference<Model>{
+        final String name;
+        final int code;
+
+        Entry(Model model, ReferenceQueue<Model> queue){
+            super(model, queue);
+            this.name = model.name;
+            this.code = model.code;
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Model> unused = new ReferenceQueue<>();
+    //by code, null for a free code; replaced, never shrunk, when it fills up
+    private static volatile String[] names = new String[64];
+    //guarded by the class lock
+    private static int count;
+    private static int[] free = new int[16];
+    private static int freeCount;
+
+    private ModelCatalog(){
+    }
+
+    // null for a null model
+    static Model intern(String model){
+        if (model == null) return null;
+        Entry e = entries.get(model);
+        Model m = e == null ? null : e.get();
+        return m != null ? m : add(model);
+    }
+
+    // NONE for a name no live vehicle uses, without interning it
+    public static int find(String model){
+        Entry e = model == null ? null : entries.get(model);
+        return e != null && e.get() != null ? e.code : NONE;
+    }
+
+    // null for NONE and for a code no live vehicle uses
+    public static String nameOf(int code){
+        String[] n = names;
+        return code >= 0 && code < n.length ? n[code] : null;
+    }
+
+    // distinct model names in use
+    public static synchronized int size(){
+        expunge();
+        return count - freeCount;
+    }
+
+    private static synchronized Model add(String model){
+        expunge();
+        Entry e = entries.get(model);
+        Model m = e == null ? null : e.get();
+        if (m != null) return m;
+        int code;
+        if (freeCount > 0){
+            code = free[--freeCount];
+        }
+        else{
+            code = count++;
+            if (code == names.length) names = Arrays.copyOf(names, names.length * 2);
+        }
+        // the name is in the array before its code can be looked up
+        names[code] = model;
+        m = new Model(model, code);
+        // a cleared entry for the same name may still be waiting in the queue; expunge leaves the new one alone
+        entries.put(model, new Entry(m, unused));
+        return m;
+    }
+
+    // releases the names whose last vehicle has been collected
+    private static void expunge(){
+        Entry e;
+        while ((e = (Entry) unused.poll()) != null){
+            entries.remove(e.name, e);
+            names[e.code] = null;
+            if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+            free[freeCount++] = e.code;
+        }
+    }
+}
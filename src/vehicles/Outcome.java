@@ -0,0 +1,12 @@
+package vehicles;
+
+//Result codes of the non-throwing Vehicle.tryMove(). The values line up with the journey
+//status codes in fleet.JourneyBatch.
+public final class Outcome{
+
+    public static final byte OK = 0;
+    public static final byte INVALID = 2;
+    public static final byte INSUFFICIENT_FUEL = 3;
+
+    private Outcome(){}
+}
@@ -1,5 +1,9 @@
 package vehicles;
 
+import events.Events;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 import interfaces.CargoCarrier;
 import interfaces.FuelConsumable;
 import interfaces.Maintainable;
@@ -10,41 +14,51 @@ import exceptions.InsufficientFuelException;
 
 public class Truck extends LandVehicle implements FuelConsumable,CargoCarrier,Maintainable{
 
-    private double fuelLevel;
+    private final AtomicDouble fuelLevel = new AtomicDouble();
     private double cargoCapacity;
-    private int currentCargo;
-    private boolean maintenanceNeeded;
+    private final AtomicInteger currentCargo = new AtomicInteger();   // whole kg, fractions are dropped as before
+    private volatile boolean maintenanceNeeded;
 
     public Truck(String id,String model,double maxSpeed,double currentMileage,int numWheels)throws InvalidOperationException{
         super(id, model, maxSpeed, currentMileage, numWheels);
-        this.fuelLevel=0.0;
         this.cargoCapacity=5000;
         //currentCargo will automatically be set to 0 maintainceNeeded will automatically be false
 
     }
 
      @Override
-    public void move(double distance)throws InvalidOperationException,InsufficientFuelException{
-        if(distance<0){
-            throw new InvalidOperationException("Distance can't be less than 0");
+    public byte tryMove(double distance){
+        if (distance<0){
+            return Outcome.INVALID;
         }
 
         double fuelNeeded=distance/calculateFuelEfficiency();
 
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            setCurrentMileage(getCurrentMileage()+distance);
-            System.out.println("Hauling cargo for "+distance+"km");
-        } 
-        else{
-            throw new InsufficientFuelException("Not enough fuel to drive for " +distance +"km");
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return Outcome.INSUFFICIENT_FUEL;
+        }
+        addMileage(distance);
+        Events.sink().journeyCompleted(this, distance);
+        return Outcome.OK;
+    }
+
+    @Override
+    public String describeJourney(double distance){
+        return "Hauling cargo for "+distance+"km";
+    }
+
+    @Override
+    public String moveFailure(byte outcome, double distance){
+        if (outcome == Outcome.INVALID){
+            return "Distance can't be less than 0";
         }
+        return "Not enough fuel to drive for " +distance +"km";
     }
 
     @Override
     public double calculateFuelEfficiency(){
         double base=8.0;
-        if (currentCargo>cargoCapacity*0.5){
+        if (currentCargo.get()>cargoCapacity*0.5){
             base *= 0.9; // reduce efficiency by 10% when loaded more than 50%
         }
         return base;
@@ -55,23 +69,33 @@ public class Truck extends LandVehicle implements FuelConsumable,CargoCarrier,Ma
         if (amount <= 0){
         throw new InvalidOperationException("Refuel amount must be more than 0");
     }
-    fuelLevel+=amount;
+    fuelLevel.add(amount);
+    notifyChanged();
     }
 
     @Override
     public double getFuelLevel(){
-        return fuelLevel;
+        return fuelLevel.get();
     }
 
     @Override
     public double consumeFuel(double distance)throws InsufficientFuelException{
-        double fuelNeeded=distance/calculateFuelEfficiency();
-        if (fuelLevel >= fuelNeeded){
-            fuelLevel -= fuelNeeded;
-            return fuelNeeded;
+        double used = tryConsumeFuel(distance);
+        if (Double.isNaN(used)){
+            throw new InsufficientFuelException(fuelFailure(distance));
         }
+        return used;
+    }
 
-        throw new InsufficientFuelException("Not enough fuel for " + distance + "km");
+    @Override
+    public double tryConsumeFuel(double distance){
+        FuelConsumable.checkDistance(distance);
+        double fuelNeeded=distance/calculateFuelEfficiency();
+        if (!fuelLevel.subtractIfAtLeast(fuelNeeded)){
+            return NOT_ENOUGH_FUEL;
+        }
+        notifyChanged();
+        return fuelNeeded;
     }
 
     @Override
@@ -79,10 +103,14 @@ public class Truck extends LandVehicle implements FuelConsumable,CargoCarrier,Ma
         if (weight <= 0){
             throw new InvalidOperationException("Cargo weight must be more than 0");
         }
-        if (currentCargo+weight > cargoCapacity){
-            throw new OverloadException("Cargo overload: exceeds capacity of " + cargoCapacity + " kg");
-        }
-        currentCargo += weight;
+        int current;
+        do{
+            current = currentCargo.get();
+            if (current+weight > cargoCapacity){
+                throw new OverloadException("Cargo overload: exceeds capacity of " + cargoCapacity + " kg");
+            }
+        } while (!currentCargo.compareAndSet(current, (int) (current+weight)));
+        notifyChanged();
     }
 
     @Override
@@ -90,10 +118,14 @@ public class Truck extends LandVehicle implements FuelConsumable,CargoCarrier,Ma
         if (weight <= 0){
             throw new InvalidOperationException("Unload weight must be positive");
         }
-        if (weight>currentCargo){
-            throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + currentCargo + " kg)");
-        }
-        currentCargo -= weight;
+        int current;
+        do{
+            current = currentCargo.get();
+            if (weight>current){
+                throw new InvalidOperationException("Cannot unload more cargo than currently loaded (" + current + " kg)");
+            }
+        } while (!currentCargo.compareAndSet(current, (int) (current-weight)));
+        notifyChanged();
     }
 
     @Override
@@ -103,13 +135,14 @@ public class Truck extends LandVehicle implements FuelConsumable,CargoCarrier,Ma
 
     @Override
     public double getCurrentCargo(){
-        return currentCargo;
+        return currentCargo.get();
     }
 
 
     @Override
     public void scheduleMaintenance(){
         this.maintenanceNeeded = true;
+        notifyChanged();
     }
 
     @Override
@@ -117,10 +150,16 @@ public class Truck extends LandVehicle implements FuelConsumable,CargoCarrier,Ma
         return ((getCurrentMileage()>10000) || maintenanceNeeded);
     }
 
+    @Override
+    public boolean isMaintenanceScheduled(){
+        return maintenanceNeeded;
+    }
+
     @Override
     public void performMaintenance(){
         this.maintenanceNeeded = false;
-        System.out.println("Truck maintenance has been done.");
+        notifyChanged();
+        Events.sink().maintenanceDone(this, "Truck maintenance has been done.");
     }
 
     
@@ -4,9 +4,11 @@ import exceptions.InvalidOperationException;
 
 public abstract class Vehicle implements Comparable<Vehicle>{
     private String id;
-    private String model;
+    //see ModelCatalog; null for a null model
+    private final ModelCatalog.Model model;
     private double maxSpeed;
-    private double currentMileage;
+    private final AtomicDouble currentMileage;
+    private VehicleListener listener;
 
     public Vehicle(String id, String model, double maxSpeed,double currentMileage)throws InvalidOperationException{
         if(id == null || id.trim().isEmpty()){
@@ -14,9 +16,9 @@ public abstract class Vehicle implements Comparable<Vehicle>{
              
         }
         this.id = id;
-        this.model = model;
+        this.model = ModelCatalog.intern(model);
         this.maxSpeed = maxSpeed;
-        this.currentMileage = currentMileage;
+        this.currentMileage = new AtomicDouble(currentMileage);
     }
 
     //Concrete methods
@@ -24,23 +26,53 @@ public abstract class Vehicle implements Comparable<Vehicle>{
     public void displayInfo(){
         System.out.printf(
             "Vehicle Info:\nID: %s\nModel: %s\nMax Speed: %.2f km/h\nCurrent Mileage: %.2f km\n",
-            id, model, maxSpeed, currentMileage
+            id, getModel(), maxSpeed, currentMileage.get()
         );
     }
     public double getCurrentMileage(){
-        return currentMileage;
+        return currentMileage.get();
     }
     public String getID(){
         return id;
     }
     public String getModel(){
-        return model;
+        return model == null ? null : model.name;
+    }
+    public int getModelCode(){
+        return model == null ? ModelCatalog.NONE : model.code;
     }
     public double getMaxSpeed(){
         return maxSpeed;
     }
     public void setCurrentMileage(double mileage) {
-    this.currentMileage = mileage;
+    this.currentMileage.set(mileage);
+    notifyChanged();
+    }
+
+    //atomic mileage += distance, concurrent journeys never lose each other's distance
+    protected void addMileage(double distance){
+        currentMileage.add(distance);
+        notifyChanged();
+    }
+
+    //a vehicle reports to one fleet at a time: attaching a second listener fails, null detaches
+    public void setListener(VehicleListener listener){
+        if (listener != null && this.listener != null){
+            throw new IllegalStateException("Vehicle " + id + " already belongs to a fleet");
+        }
+        this.listener = listener;
+    }
+
+    public boolean hasListener(){
+        return listener != null;
+    }
+
+    //subclasses call this after every change to their state
+    protected void notifyChanged(){
+        VehicleListener l = listener;
+        if (l != null){
+            l.vehicleChanged(this);
+        }
     }
 
     @Override
@@ -53,9 +85,25 @@ public abstract class Vehicle implements Comparable<Vehicle>{
 
     //Abstract methods
 
-    public abstract void move(double distance)throws InvalidOperationException, InsufficientFuelException;;
+    public void move(double distance)throws InvalidOperationException, InsufficientFuelException{
+        byte outcome = tryMove(distance);
+        if (outcome == Outcome.INVALID){
+            throw new InvalidOperationException(moveFailure(outcome, distance));
+        }
+        if (outcome == Outcome.INSUFFICIENT_FUEL){
+            throw new InsufficientFuelException(moveFailure(outcome, distance));
+        }
+    }
+
+    //move() without exceptions: returns an Outcome code, the vehicle is unchanged unless it is OK
+    public abstract byte tryMove(double distance);
+    //the message move() throws for a failed outcome, only built when somebody asks for it
+    public abstract String moveFailure(byte outcome, double distance);
+    //the line reported for a completed journey, built only when a sink prints it
+    public abstract String describeJourney(double distance);
     public abstract double calculateFuelEfficiency();
-    abstract double estimateJourneyTime(double distance);
+    //hours the journey takes at max speed, adjusted by each domain's time model
+    public abstract double estimateJourneyTime(double distance);
 
 
 
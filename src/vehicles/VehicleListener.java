@@ -0,0 +1,6 @@
+package vehicles;
+
+//notified after a vehicle's state (mileage, fuel, cargo, passengers, maintenance) has changed
+public interface VehicleListener{
+    void vehicleChanged(Vehicle v);
+}
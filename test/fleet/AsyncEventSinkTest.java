@@ -0,0 +1,52 @@
+package fleet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+import events.AsyncEventSink;
+
+//Background event writer: with a ring far smaller than the burst, blocked producers still get
+//every line out exactly once and in order per producer; dropWhenFull counts what it drops.
+final class AsyncEventSinkTest{
+
+    static void testTinyRingLosesNothing() throws Exception{
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int producers = 4, each = 5_000;
+        try (AsyncEventSink sink = new AsyncEventSink(4, false, new PrintStream(bytes, true, "UTF-8"))){
+            ExecutorService pool = Executors.newFixedThreadPool(producers);
+            List<Future<?>> done = new ArrayList<>();
+            for (int p = 0; p < producers; p++){
+                int producer = p;
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < each; i++) sink.recordSkipped(producer + ":" + i);
+                }));
+            }
+            for (Future<?> f : done) f.get(1, TimeUnit.MINUTES);
+            pool.shutdown();
+            sink.flush();
+            Check.equal(0L, sink.dropped(), "dropped");
+        }
+        int[] next = new int[producers];
+        for (String line : bytes.toString(StandardCharsets.UTF_8.name()).split(System.lineSeparator())){
+            String[] parts = line.split(":");
+            int producer = Integer.parseInt(parts[0]);
+            Check.equal(next[producer]++, Integer.parseInt(parts[1]), "next line of producer " + producer);
+        }
+        for (int p = 0; p < producers; p++) Check.equal(each, next[p], "lines of producer " + p);
+    }
+
+    static void testDropWhenFullCountsDrops() throws Exception{
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long printed;
+        int sent = 50_000;
+        try (AsyncEventSink sink = new AsyncEventSink(4, true, new PrintStream(bytes, true, "UTF-8"))){
+            for (int i = 0; i < sent; i++) sink.recordSkipped("line " + i);
+            sink.flush();
+            printed = bytes.toString(StandardCharsets.UTF_8.name()).split(System.lineSeparator()).length;
+            Check.equal((long) sent, printed + sink.dropped(), "printed + dropped");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package fleet;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+//Assertions for the tests under test/, plain JDK like the benchmarks: a failed check throws
+//AssertionError with the message, RunTests reports it and moves on to the next test.
+final class Check{
+
+    interface Action{
+        void run() throws Exception;
+    }
+
+    private Check(){}
+
+    static void isTrue(boolean condition, String what){
+        if (!condition) throw new AssertionError(what);
+    }
+
+    static void equal(Object expected, Object actual, String what){
+        if (expected == null ? actual != null : !expected.equals(actual)){
+            throw new AssertionError(what + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    // exact, so a value that went through a file must come back bit for bit
+    static void same(double expected, double actual, String what){
+        if (Double.doubleToLongBits(expected) != Double.doubleToLongBits(actual)){
+            throw new AssertionError(what + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    static <T extends Throwable> T fails(Class<T> type, Action action){
+        try{
+            action.run();
+        }
+        catch (Throwable t){
+            if (type.isInstance(t)) return type.cast(t);
+            throw new AssertionError("expected " + type.getSimpleName() + " but got " + t, t);
+        }
+        throw new AssertionError("expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+
+    // a private field of target, for state the public API does not expose
+    static Object field(Object target, String name) throws ReflectiveOperationException{
+        Field f = target.getClass().getDeclaredField(name);
+        f.setAccessible(true);
+        return f.get(target);
+    }
+
+    static Path tempDir(String prefix) throws IOException{
+        Path dir = Files.createTempDirectory(prefix);
+        return dir;
+    }
+
+    static void delete(Path dir) throws IOException{
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)){
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) Files.delete(p);
+        }
+    }
+}
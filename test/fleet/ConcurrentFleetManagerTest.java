@@ -0,0 +1,91 @@
+package fleet;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import exceptions.InvalidOperationException;
+import vehicles.*;
+
+//ConcurrentFleetManager under concurrent writers, vehicle changes and readers: snapshots are
+//always consistent and, once awaited, hold every write; report, speed order and models agree
+//with a FleetManager holding the same vehicles.
+final class ConcurrentFleetManagerTest{
+
+    private static final int WRITERS = 4;
+    private static final int PER_WRITER = 2_000;
+
+    static void testConcurrentWritesAndReads() throws Exception{
+        try (ConcurrentFleetManager cfm = new ConcurrentFleetManager()){
+            ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 2);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicReference<String> problem = new AtomicReference<>();
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++){
+                int writer = w;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < PER_WRITER; i++){
+                        // models shared across writers, some vehicles without one
+                        String model = i % 10 == 0 ? null : "M" + (i % 5);
+                        Car car = new Car("W" + writer + "-" + i, model, 50 + i % 300, i, 4);
+                        cfm.addVehicle(car);
+                        car.setCurrentMileage(i + 0.5);
+                        if (i % 3 == 0) cfm.removeVehicle(car.getID());
+                    }
+                    return null;
+                }));
+            }
+            Future<?> reader = pool.submit(() -> {
+                start.await();
+                long lastVersion = -1;
+                while (!writers.stream().allMatch(Future::isDone)){
+                    ConcurrentFleetManager.Snapshot s = cfm.snapshot();
+                    Set<String> ids = new HashSet<>();
+                    for (Vehicle v : s.getVehicles()){
+                        if (!ids.add(v.getID())) problem.set("duplicate " + v.getID() + " in a snapshot");
+                    }
+                    if (s.getVersion() < lastVersion) problem.set("snapshot version went back");
+                    lastVersion = s.getVersion();
+                    cfm.generateReport();
+                    cfm.getFleetSortedBySpeed();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> f : writers) f.get(2, TimeUnit.MINUTES);
+            reader.get(2, TimeUnit.MINUTES);
+            pool.shutdown();
+            Check.equal(null, problem.get(), "reader saw");
+
+            List<Vehicle> published = cfm.awaitSnapshot().getVehicles();
+            int kept = WRITERS * (PER_WRITER - (PER_WRITER + 2) / 3);
+            Check.equal(kept, published.size(), "vehicles in the awaited snapshot");
+            Check.equal(kept, cfm.size(), "size");
+
+            // the same vehicles in a FleetManager give the same report, models and speed order
+            List<Vehicle> copies = FleetManager.copyOf(published);
+            FleetManager fm = Samples.fleetOf(copies);
+            Check.equal(fm.generateReport(), cfm.generateReport(), "report");
+            Check.equal(fm.getDistinctModels(), cfm.getDistinctModels(), "distinct models");
+            List<Double> expectedSpeeds = new ArrayList<>(), speeds = new ArrayList<>();
+            for (Vehicle v : fm.getFleetSortedBySpeed()) expectedSpeeds.add(v.getMaxSpeed());
+            for (Vehicle v : cfm.getFleetSortedBySpeed()) speeds.add(v.getMaxSpeed());
+            Check.equal(expectedSpeeds, speeds, "speed order");
+        }
+    }
+
+    static void testNullModelAndDuplicates() throws Exception{
+        try (ConcurrentFleetManager cfm = new ConcurrentFleetManager()){
+            Car anonymous = new Car("A", null, 100, 0, 4);
+            cfm.addVehicle(anonymous);
+            cfm.addVehicle(new Car("B", "Model", 100, 0, 4));
+            Check.equal(new TreeSet<>(Collections.singleton("Model")), cfm.getDistinctModels(), "distinct models");
+            Check.fails(InvalidOperationException.class, () -> cfm.addVehicle(new Car("A", "Other", 1, 0, 4)));
+            Check.fails(InvalidOperationException.class, () -> new FleetManager().addVehicle(anonymous));
+            cfm.removeVehicle("A");
+            Check.fails(InvalidOperationException.class, () -> cfm.removeVehicle("A"));
+            Check.equal(1, cfm.awaitSnapshot().getVehicles().size(), "vehicles left");
+        }
+    }
+}
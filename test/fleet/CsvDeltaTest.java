@@ -0,0 +1,85 @@
+package fleet;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import vehicles.*;
+
+//saveDelta / mergeDeltas, and saves that fail: the changes they took must still be pending so the
+//next save writes them.
+final class CsvDeltaTest{
+
+    private static final Path FULL_DEVICE = Paths.get("/dev/full");
+
+    static void testMergedDeltasMatchAFullSave() throws Exception{
+        Path dir = Check.tempDir("delta");
+        try{
+            FleetManager fm = Samples.fleetOf(Samples.csvOneOfEach("V", "Base"));
+            Path base = dir.resolve("fleet.csv");
+            fm.saveToFile(base.toString());
+            Check.equal(0, fm.getPendingChangeCount(), "pending after a full save");
+
+            fm.getVehicleById("VT").setCurrentMileage(51000);
+            fm.removeVehicle("VB");
+            fm.addVehicle(new Car("N1", "Nouveau", 150, 10, 4));
+            Path d1 = dir.resolve("1.delta");
+            Check.equal(3, fm.saveDelta(d1.toString()), "records in the first delta");
+
+            // removed and added again under the same ID: it moves to the end, as in the fleet
+            fm.removeVehicle("VC");
+            fm.addVehicle(new Car("VC", "Again", 90, 0, 4));
+            ((Truck) fm.getVehicleById("VT")).refuel(10);
+            Path d2 = dir.resolve("2.delta");
+            Check.equal(3, fm.saveDelta(d2.toString()), "records in the second delta");
+            Check.equal(0, fm.saveDelta(dir.resolve("3.delta").toString()), "records with nothing changed");
+
+            Check.equal(fm.getFleetSnapshot().size(), fm.mergeDeltas(base.toString(), d1.toString(), d2.toString()), "merged vehicles");
+            Check.isTrue(!Files.exists(d1) && !Files.exists(d2), "merged deltas are deleted");
+            Check.isTrue(!Files.exists(dir.resolve("fleet.csv.tmp")), "no temporary file left");
+
+            FleetManager merged = new FleetManager();
+            merged.loadFromFile(base.toString());
+            Check.equal(Samples.describe(fm.getFleetSnapshot()), Samples.describe(merged.getFleetSnapshot()), "merged fleet");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    static void testFailedOpenKeepsPendingChanges() throws Exception{
+        Path dir = Check.tempDir("delta");
+        try{
+            FleetManager fm = Samples.fleetOf(Samples.csvOneOfEach("V", "Base"));
+            fm.saveToFile(dir.resolve("fleet.csv").toString());
+            fm.getVehicleById("VA").setCurrentMileage(1);
+            fm.removeVehicle("VS");
+            String missing = dir.resolve("no-such-dir").resolve("x.csv").toString();
+
+            Check.fails(IOException.class, () -> fm.saveDelta(missing));
+            Check.equal(2, fm.getPendingChangeCount(), "pending after a failed delta");
+            Check.fails(IOException.class, () -> fm.saveToFile(missing));
+            Check.equal(2, fm.getPendingChangeCount(), "pending after a failed full save");
+            Check.equal(2, fm.saveDelta(dir.resolve("1.delta").toString()), "records in the retried delta");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    // /dev/full accepts the open and fails every write, the case PrintWriter only reports through checkError
+    static void testFailedWriteKeepsPendingChanges() throws Exception{
+        if (!Files.isWritable(FULL_DEVICE)){
+            System.out.println("  skipped, no " + FULL_DEVICE);
+            return;
+        }
+        FleetManager fm = Samples.fleetOf(Samples.csvOneOfEach("V", "Base"));
+        int pending = fm.getPendingChangeCount();
+        Check.isTrue(pending > 0, "new vehicles are pending");
+
+        Check.fails(IOException.class, () -> fm.saveToFile(FULL_DEVICE.toString()));
+        Check.equal(pending, fm.getPendingChangeCount(), "pending after a failed full save");
+        Check.fails(IOException.class, () -> fm.saveDelta(FULL_DEVICE.toString()));
+        Check.equal(pending, fm.getPendingChangeCount(), "pending after a failed delta");
+    }
+}
@@ -0,0 +1,84 @@
+package fleet;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import vehicles.*;
+
+//saveToFile / loadFromFile: every type round-trips, models in any script survive whatever the
+//platform charset is, and a file spanning several loader chunks keeps its order.
+final class CsvFilesTest{
+
+    static void testEveryTypeRoundTrips() throws Exception{
+        Path dir = Check.tempDir("csv");
+        try{
+            FleetManager fm = Samples.fleetOf(Samples.csvOneOfEach("V", "Model X"));
+            Path file = dir.resolve("fleet.csv");
+            fm.saveToFile(file.toString());
+            FleetManager loaded = new FleetManager();
+            loaded.loadFromFile(file.toString());
+            Check.equal(Samples.describe(fm.getFleetSnapshot()), Samples.describe(loaded.getFleetSnapshot()), "loaded fleet");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    static void testNonAsciiModelsAreWrittenAsUtf8() throws Exception{
+        Path dir = Check.tempDir("csv");
+        try{
+            List<Vehicle> vehicles = new ArrayList<>();
+            vehicles.addAll(Samples.csvOneOfEach("A", "Škoda Octavia"));
+            vehicles.addAll(Samples.csvOneOfEach("B", "日産 リーフ"));
+            vehicles.addAll(Samples.csvOneOfEach("C", "Ünïcödé €"));
+            FleetManager fm = Samples.fleetOf(vehicles);
+            Path file = dir.resolve("fleet.csv");
+            fm.saveToFile(file.toString());
+
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            for (String model : new String[]{"Škoda Octavia", "日産 リーフ", "Ünïcödé €"}){
+                Check.isTrue(text.contains("," + model + ","), "file holds " + model + " as UTF-8");
+            }
+            FleetManager loaded = new FleetManager();
+            loaded.loadFromFile(file.toString());
+            Check.equal(Samples.describe(fm.getFleetSnapshot()), Samples.describe(loaded.getFleetSnapshot()), "loaded fleet");
+            Check.equal(new TreeSet<>(Arrays.asList("Škoda Octavia", "日産 リーフ", "Ünïcödé €")),
+                    new TreeSet<>(loaded.getDistinctModels()), "distinct models");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    static void testMultiChunkFileKeepsOrderAndSkipsBadLines() throws Exception{
+        Path dir = Check.tempDir("csv");
+        try{
+            // well past the loader's 1 MB minimum chunk, so lines straddle chunk boundaries
+            StringBuilder csv = new StringBuilder();
+            int n = 60_000;
+            for (int i = 0; i < n; i++){
+                csv.append("Car,ID").append(i).append(",Modèle ").append(i % 7).append(",120.00,")
+                   .append(i).append(".00,4,0.00,5,0\n");
+                if (i % 10_000 == 5) csv.append("Car,broken\n");
+            }
+            Path file = dir.resolve("big.csv");
+            Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+            Check.isTrue(Files.size(file) > 2 << 20, "file spans several chunks");
+
+            FleetManager fm = new FleetManager();
+            fm.loadFromFile(file.toString());
+            List<Vehicle> vehicles = fm.getFleetSnapshot();
+            Check.equal(n, vehicles.size(), "vehicles loaded");
+            for (int i = 0; i < n; i++){
+                Vehicle v = vehicles.get(i);
+                if (!v.getID().equals("ID" + i) || v.getCurrentMileage() != i || !v.getModel().equals("Modèle " + (i % 7))){
+                    throw new AssertionError("line " + i + " loaded as " + Samples.describe(v));
+                }
+            }
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+}
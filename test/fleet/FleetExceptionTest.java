@@ -0,0 +1,39 @@
+package fleet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import exceptions.*;
+import vehicles.*;
+
+//The cheap exception constructor and the up-front distance check of the fuel paths.
+final class FleetExceptionTest{
+
+    static void testLazyMessageIsStacklessAndBuiltWhenRead(){
+        AtomicInteger built = new AtomicInteger();
+        FleetException[] all = {
+            new InsufficientFuelException(() -> "fuel " + built.incrementAndGet()),
+            new InvalidOperationException(() -> "operation " + built.incrementAndGet()),
+            new OverloadException(() -> "overload " + built.incrementAndGet()),
+        };
+        Check.equal(0, built.get(), "messages built before reading");
+        for (FleetException e : all) Check.equal(0, e.getStackTrace().length, "stack frames of " + e.getClass().getSimpleName());
+        Check.equal("fuel 1", all[0].getMessage(), "message");
+        Check.equal("operation 2", all[1].getMessage(), "message");
+        Check.equal("overload 3", all[2].getMessage(), "message");
+
+        Exception eager = new InvalidOperationException("eager");
+        Check.equal("eager", eager.getMessage(), "eager message");
+        Check.isTrue(eager.getStackTrace().length > 0, "eager exception has its stack trace");
+    }
+
+    static void testNegativeDistanceIsRejectedBeforeAnyTankChanges() throws Exception{
+        FleetManager fm = Samples.fleetOf(Samples.oneOfEach("V", "M"));
+        double before = fm.getTotalFuelLevel();
+        Check.fails(IllegalArgumentException.class, () -> fm.consumeFuelForAll(-10));
+        Check.fails(IllegalArgumentException.class, () -> fm.consumeFuelForAll(Double.NaN));
+        Check.fails(IllegalArgumentException.class, () -> ((Car) fm.getVehicleById("VC")).consumeFuel(-1));
+        Check.same(before, fm.getTotalFuelLevel(), "fuel in the fleet");
+        // an empty tank is still a per-vehicle skip, not an exception
+        Check.isTrue(fm.consumeFuelForAll(1e9) == 0, "nothing consumed when no tank holds enough");
+    }
+}
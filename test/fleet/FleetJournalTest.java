@@ -0,0 +1,145 @@
+package fleet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+import vehicles.*;
+
+//Write-ahead journal: reopening a directory gives back the fleet as it was, through compactions
+//and torn tails, and a writer failure is latched instead of thrown through the mutations.
+final class FleetJournalTest{
+
+    // adds, removes and state changes of every kind, models null and non-ASCII included
+    private static void mutate(FleetManager fm, String prefix) throws Exception{
+        for (Vehicle v : Samples.oneOfEach(prefix + "N", null)) fm.addVehicle(v);
+        for (Vehicle v : Samples.oneOfEach(prefix + "U", "Škoda 日産")) fm.addVehicle(v);
+        fm.startAllJourneys(10);
+        fm.consumeFuelForAll(5);
+        fm.removeVehicle(prefix + "NB");
+        ((Truck) fm.getVehicleById(prefix + "UT")).unloadCargo(500);
+        ((Car) fm.getVehicleById(prefix + "NC")).refuel(3.25);
+        fm.maintainAll();
+        fm.getVehicleById(prefix + "UA").setCurrentMileage(1.0 / 7);
+    }
+
+    private static List<String> reopened(Path dir) throws Exception{
+        FleetManager fm = new FleetManager();
+        fm.openJournal(dir.toString());
+        try{
+            return Samples.describe(fm.getFleetSnapshot());
+        }
+        finally{
+            fm.closeJournal();
+        }
+    }
+
+    private static Path lastSegment(Path dir) throws IOException{
+        try (Stream<Path> files = Files.list(dir)){
+            return files.filter(p -> p.getFileName().toString().startsWith("journal-"))
+                    .max(Comparator.comparing(Path::toString)).get();
+        }
+    }
+
+    static void testReopenReplaysEveryChange() throws Exception{
+        Path dir = Check.tempDir("journal");
+        try{
+            FleetManager fm = Samples.fleetOf(Samples.oneOfEach("S", "Start"));
+            fm.openJournal(dir.toString());
+            mutate(fm, "A");
+            List<String> expected = Samples.describe(fm.getFleetSnapshot());
+            fm.closeJournal();
+            Check.equal(expected, reopened(dir), "replayed fleet");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    static void testCompactionKeepsTheFleet() throws Exception{
+        Path dir = Check.tempDir("journal");
+        try{
+            FleetManager fm = new FleetManager();
+            FleetJournal journal = fm.openJournal(dir.toString());
+            mutate(fm, "A");
+            journal.compact().get();
+            mutate(fm, "B");
+            journal.compact().get();
+            mutate(fm, "C");
+            List<String> expected = Samples.describe(fm.getFleetSnapshot());
+            fm.closeJournal();
+
+            List<String> snapshots = new ArrayList<>();
+            for (String name : dir.toFile().list()) if (name.startsWith("snapshot-")) snapshots.add(name);
+            Check.equal(1, snapshots.size(), "snapshots left after compaction " + snapshots);
+            Check.equal(expected, reopened(dir), "replayed fleet");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    // a crash in the middle of a write leaves part of a record at the end of the last segment
+    static void testTornTailIsCutOff() throws Exception{
+        Path dir = Check.tempDir("journal");
+        try{
+            FleetManager fm = new FleetManager();
+            fm.openJournal(dir.toString());
+            mutate(fm, "A");
+            List<String> expected = Samples.describe(fm.getFleetSnapshot());
+            fm.closeJournal();
+
+            ByteBuffer torn = ByteBuffer.allocate(11).putInt(200).putInt(0x12345678).put(FleetJournal.UPDATE).put((byte) 1).put((byte) 2);
+            torn.flip();
+            try (FileChannel ch = FileChannel.open(lastSegment(dir), StandardOpenOption.APPEND)){
+                ch.write(torn);
+            }
+            Check.equal(expected, reopened(dir), "fleet without the torn record");
+
+            // the torn bytes are gone, so later records land after the last good one
+            FleetManager again = new FleetManager();
+            again.openJournal(dir.toString());
+            again.getVehicleById("AUT").setCurrentMileage(42);
+            expected = Samples.describe(again.getFleetSnapshot());
+            again.closeJournal();
+            Check.equal(expected, reopened(dir), "fleet after writing past the cut");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    static void testWriterFailureIsLatched() throws Exception{
+        Path dir = Check.tempDir("journal");
+        try{
+            FleetManager fm = Samples.fleetOf(Samples.oneOfEach("S", "Start"));
+            FleetJournal journal = fm.openJournal(dir.toString());
+            journal.sync();
+            Check.equal(null, journal.getFailure(), "failure while healthy");
+
+            // the next write of the writer thread fails
+            ((FileChannel) Check.field(journal, "segment")).close();
+            fm.getVehicleById("SC").setCurrentMileage(5);
+            IOException failure = Check.fails(IOException.class, journal::sync);
+            Check.isTrue(journal.getFailure() == failure, "getFailure returns the latched exception");
+
+            // mutations still go through, durable or not, and are no longer recorded
+            journal.setDurableWrites(true);
+            fm.addVehicle(new Car("NEW", "Model", 100, 0, 4));
+            fm.getVehicleById("SC").setCurrentMileage(9);
+            fm.removeVehicle("ST");
+            Check.equal(5, fm.getFleetSnapshot().size(), "fleet size");
+            Check.same(9, fm.getVehicleById("SC").getCurrentMileage(), "mileage");
+
+            Check.fails(IOException.class, journal::compact);
+            Check.isTrue(Check.fails(IOException.class, fm::closeJournal) == failure, "close reports the same failure");
+            Check.equal(null, fm.getJournal(), "journal detached after close");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+}
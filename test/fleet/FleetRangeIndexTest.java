@@ -0,0 +1,119 @@
+package fleet;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+import interfaces.FuelConsumable;
+import vehicles.*;
+
+//Lazily refreshed range indexes: after any mix of single changes, journey waves, adds and removes,
+//a range query returns exactly what a scan of the fleet would, in key order.
+final class FleetRangeIndexTest{
+
+    private static List<String> scan(FleetManager fm, ToDoubleFunction<Vehicle> key, Class<?> type, double min, double max){
+        List<Vehicle> hits = new ArrayList<>();
+        for (Vehicle v : fm.getFleetSnapshot()){
+            if (type.isInstance(v)){
+                double k = key.applyAsDouble(v);
+                if (k >= min && k <= max) hits.add(v);
+            }
+        }
+        // stable, so equal keys stay in fleet order
+        hits.sort(Comparator.comparingDouble(key));
+        return ids(hits);
+    }
+
+    private static List<String> ids(List<Vehicle> vehicles){
+        List<String> out = new ArrayList<>();
+        for (Vehicle v : vehicles) out.add(v.getID());
+        return out;
+    }
+
+    private static void checkRanges(FleetManager fm, Random random, String when){
+        ToDoubleFunction<Vehicle> fuel = v -> ((FuelConsumable) v).getFuelLevel();
+        for (int q = 0; q < 5; q++){
+            double a = random.nextDouble() * 200_000, b = a + random.nextDouble() * 50_000;
+            double min = q == 0 ? Double.NEGATIVE_INFINITY : a, max = q == 1 ? Double.POSITIVE_INFINITY : b;
+            Check.equal(scan(fm, Vehicle::getCurrentMileage, Vehicle.class, min, max), ids(fm.getVehiclesByMileage(min, max)),
+                    "mileage in [" + min + ", " + max + "] " + when);
+            double f = random.nextDouble() * 500, g = f + random.nextDouble() * 300;
+            Check.equal(scan(fm, fuel, FuelConsumable.class, f, g), ids(fm.getVehiclesByFuelLevel(f, g)),
+                    "fuel in [" + f + ", " + g + "] " + when);
+        }
+    }
+
+    static void testRangesMatchAScan() throws Exception{
+        Random random = new Random(11);
+        FleetManager fm = Samples.fleetOf(bench.SyntheticFleet.generate(3_000, 5));
+        checkRanges(fm, random, "after loading");
+        int added = 0;
+        for (int round = 0; round < 30; round++){
+            List<Vehicle> vehicles = fm.getFleetSnapshot();
+            switch (round % 4){
+                case 0:
+                    // a few changes: re-keyed one by one
+                    for (int i = 0; i < 20; i++){
+                        vehicles.get(random.nextInt(vehicles.size())).setCurrentMileage(random.nextInt(200_000));
+                    }
+                    break;
+                case 1:
+                    // a wave: rebuilt from one sort
+                    fm.startAllJourneys(50 + random.nextInt(500));
+                    break;
+                case 2:
+                    // changed, then removed before any query
+                    for (int i = 0; i < 50; i++){
+                        Vehicle v = vehicles.get(random.nextInt(vehicles.size()));
+                        if (fm.getVehicleById(v.getID()) == null) continue;
+                        v.setCurrentMileage(1);
+                        fm.removeVehicle(v.getID());
+                    }
+                    break;
+                default:
+                    for (Vehicle v : bench.SyntheticFleet.generate(40, 100 + round)){
+                        Car car = new Car("N" + added++, v.getModel(), v.getMaxSpeed(), 1000, 4);
+                        car.refuel(1 + random.nextInt(100));
+                        fm.addVehicle(car);
+                    }
+                    fm.consumeFuelForAll(1);
+            }
+            checkRanges(fm, random, "after round " + round);
+        }
+    }
+
+    static void testInvalidRanges() throws Exception{
+        FleetManager fm = Samples.fleetOf(Samples.oneOfEach("V", "M"));
+        Check.fails(IllegalArgumentException.class, () -> fm.getVehiclesByMileage(10, 5));
+        Check.fails(IllegalArgumentException.class, () -> fm.getVehiclesByMileage(Double.NaN, 5));
+        Check.fails(IllegalArgumentException.class, () -> fm.getVehiclesByFuelLevel(0, Double.NaN));
+        Check.equal(5, fm.getVehiclesByMileage(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).size(), "open range");
+    }
+
+    // entries changed and then removed stay in pending; with no query in between they must not pile up
+    static void testPendingStaysBounded() throws Exception{
+        FleetRangeIndex index = new FleetRangeIndex(Vehicle::getCurrentMileage);
+        List<FleetEntry> live = new ArrayList<>();
+        long seq = 0;
+        for (int i = 0; i < 100; i++){
+            FleetEntry e = new FleetEntry(new Car("V" + seq, null, 100, i, 4), seq, i);
+            seq++;
+            index.add(e);
+            live.add(e);
+        }
+        List<?> pending = (List<?>) Check.field(index, "pending");
+        int most = 0;
+        for (int round = 0; round < 20_000; round++){
+            FleetEntry old = live.get(round % live.size());
+            index.changed(old);
+            index.remove(old);
+            FleetEntry e = new FleetEntry(new Car("V" + seq, null, 100, round, 4), seq, old.slot);
+            seq++;
+            index.add(e);
+            live.set(round % live.size(), e);
+            most = Math.max(most, pending.size());
+        }
+        // the index's slack of 64, plus the entry that triggers the refresh
+        Check.isTrue(most <= index.size() + 65, "pending peaked at " + most + " for " + index.size() + " entries");
+        Check.equal(100, index.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).size(), "entries");
+    }
+}
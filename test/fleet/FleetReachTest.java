@@ -0,0 +1,112 @@
+package fleet;
+
+import java.util.*;
+
+import interfaces.*;
+import vehicles.*;
+
+//Journey feasibility index: "who can travel d km" must name exactly the vehicles whose move would
+//succeed, for every type filter, as fuel levels change between queries.
+final class FleetReachTest{
+
+    private static final Class<?>[] TYPES = {null, Vehicle.class, Car.class, CargoShip.class,
+            FuelConsumable.class, PassengerCarrier.class, CargoCarrier.class, Maintainable.class};
+
+    // moves a copy of every vehicle, the live fleet is not touched
+    private static List<String> byMoving(FleetManager fm, double distance, Class<?> type){
+        List<Vehicle> fleet = fm.getFleetSnapshot();
+        List<Vehicle> copies = FleetManager.copyOf(fleet);
+        List<Vehicle> able = new ArrayList<>();
+        for (int i = 0; i < fleet.size(); i++){
+            Vehicle v = fleet.get(i);
+            if ((type == null || type.isInstance(v)) && copies.get(i).tryMove(distance) == Outcome.OK) able.add(v);
+        }
+        able.sort(Comparator.comparingDouble(FleetReach::reach));
+        List<String> ids = new ArrayList<>();
+        for (Vehicle v : able) ids.add(v.getID());
+        return ids;
+    }
+
+    private static boolean refuelable(Vehicle v){
+        return v instanceof FuelConsumable && !(v instanceof CargoShip && ((CargoShip) v).hasSail());
+    }
+
+    private static void check(FleetManager fm, String when){
+        for (double distance : new double[]{0, 1, 50, 400, 2_000, 20_000}){
+            for (Class<?> type : TYPES){
+                List<String> ids = new ArrayList<>();
+                for (Vehicle v : fm.getVehiclesAbleToTravel(distance, type)) ids.add(v.getID());
+                Check.equal(byMoving(fm, distance, type), ids,
+                        (type == null ? "any" : type.getSimpleName()) + " able to travel " + distance + " km " + when);
+            }
+        }
+    }
+
+    static void testAbleToTravelMatchesMoving() throws Exception{
+        Random random = new Random(3);
+        FleetManager fm = Samples.fleetOf(bench.SyntheticFleet.generate(1_500, 8));
+        check(fm, "after loading");
+        for (int round = 0; round < 12; round++){
+            List<Vehicle> vehicles = fm.getFleetSnapshot();
+            switch (round % 3){
+                case 0:
+                    for (int i = 0; i < 10; i++){
+                        Vehicle v = vehicles.get(random.nextInt(vehicles.size()));
+                        if (refuelable(v)) ((FuelConsumable) v).refuel(1 + random.nextInt(200));
+                    }
+                    break;
+                case 1:
+                    fm.startAllJourneys(100 + random.nextInt(300));
+                    break;
+                default:
+                    for (int i = 0; i < 30; i++){
+                        Vehicle v = vehicles.get(random.nextInt(vehicles.size()));
+                        if (fm.getVehicleById(v.getID()) == null) continue;
+                        if (refuelable(v)) ((FuelConsumable) v).refuel(5);
+                        fm.removeVehicle(v.getID());
+                    }
+            }
+            check(fm, "after round " + round);
+        }
+    }
+
+    static void testSeatsAndCargoFilters() throws Exception{
+        FleetManager fm = Samples.fleetOf(Samples.oneOfEach("V", "M"));
+        Set<String> ids = new TreeSet<>();
+        for (Vehicle v : fm.getPassengerCarriersAbleToTravel(1, 20)) ids.add(v.getID());
+        // the car has 2 seats left, the bus and the plane more
+        Check.equal(new TreeSet<>(Arrays.asList("VA", "VB")), ids, "carriers with 20 free seats");
+        Check.isTrue(fm.getCargoCarriersAbleToTravel(1, 1e9).isEmpty(), "nobody carries a million tonnes");
+        Check.fails(IllegalArgumentException.class, () -> fm.getVehiclesAbleToTravel(-1));
+    }
+
+    // vehicles changed and then removed stay in pending; with no query in between they must not pile up
+    static void testPendingStaysBounded() throws Exception{
+        FleetReach reach = new FleetReach();
+        List<FleetEntry> live = new ArrayList<>();
+        long seq = 0;
+        for (int i = 0; i < 100; i++){
+            Car car = new Car("V" + seq, null, 100, 0, 4);
+            car.refuel(i + 1);
+            FleetEntry e = new FleetEntry(car, seq++, i);
+            reach.add(e);
+            live.add(e);
+        }
+        List<?> pending = (List<?>) Check.field(reach, "pending");
+        int most = 0;
+        for (int round = 0; round < 20_000; round++){
+            FleetEntry old = live.get(round % live.size());
+            reach.changed(old);
+            reach.remove(old);
+            Car car = new Car("V" + seq, null, 100, 0, 4);
+            car.refuel(1 + round % 50);
+            FleetEntry e = new FleetEntry(car, seq++, old.slot);
+            reach.add(e);
+            live.set(round % live.size(), e);
+            most = Math.max(most, pending.size());
+        }
+        // the slack of 64, plus the entry that triggers the refresh
+        Check.isTrue(most <= live.size() + 65, "pending peaked at " + most + " for " + live.size() + " vehicles");
+        Check.equal(100, reach.able(0, null, null).size(), "vehicles able to travel 0 km");
+    }
+}
@@ -0,0 +1,84 @@
+package fleet;
+
+import java.util.*;
+
+import exceptions.InvalidOperationException;
+import vehicles.*;
+
+//FleetTable's ID dictionary and its generation-checked handles.
+final class FleetTableTest{
+
+    static void testHandleDiesWithItsVehicle() throws Exception{
+        FleetManager fm = new FleetManager();
+        fm.addVehicle(new Car("A", "M", 100, 0, 4));
+        long a = fm.getHandle("A");
+        Check.isTrue(a >= 0, "handle of a registered vehicle");
+        Check.equal("A", fm.getVehicle(a).getID(), "resolved vehicle");
+
+        fm.removeVehicle(a);
+        // B takes A's slot
+        fm.addVehicle(new Car("B", "M", 100, 0, 4));
+        long b = fm.getHandle("B");
+        Check.equal(a & 0xffffffffL, b & 0xffffffffL, "slot reused");
+        Check.equal(null, fm.getVehicle(a), "stale handle");
+        Check.fails(InvalidOperationException.class, () -> fm.removeVehicle(a));
+        Check.equal("B", fm.getVehicle(b).getID(), "B still there");
+        Check.equal(-1L, fm.getHandle("A"), "handle of an unknown ID");
+        Check.equal(null, fm.getVehicle(-1), "handle -1");
+        Check.equal(null, fm.getVehicle(Long.MAX_VALUE), "malformed handle");
+    }
+
+    static void testLoadInvalidatesEveryHandle() throws Exception{
+        FleetManager fm = Samples.fleetOf(Samples.oneOfEach("V", "M"));
+        long[] before = fm.getHandles();
+        java.nio.file.Path dir = Check.tempDir("handles");
+        try{
+            String file = dir.resolve("fleet.bin").toString();
+            fm.saveSnapshot(file);
+            fm.loadSnapshot(file);
+        }
+        finally{
+            Check.delete(dir);
+        }
+        for (long h : before) Check.equal(null, fm.getVehicle(h), "handle from before the load");
+        long[] after = fm.getHandles();
+        Check.equal(before.length, after.length, "handles after the load");
+        for (int i = 0; i < after.length; i++){
+            Check.equal(fm.getFleetSnapshot().get(i), fm.getVehicle(after[i]), "handle " + i + " in fleet order");
+        }
+    }
+
+    // removes leave deleted cells behind; lookups, reuse and fleet order must survive them
+    static void testChurn() throws Exception{
+        FleetTable table = new FleetTable();
+        Map<String, Long> live = new LinkedHashMap<>();
+        Random random = new Random(7);
+        long seq = 0;
+        for (int round = 0; round < 20_000; round++){
+            if (live.isEmpty() || random.nextInt(3) > 0){
+                String id = "V" + random.nextInt(5_000);
+                if (table.get(id) != null) continue;
+                FleetEntry e = table.add(new Car(id, null, 100, 0, 4), seq++);
+                live.put(id, table.handleOf(e));
+            }
+            else{
+                String id = live.keySet().iterator().next();
+                long h = live.remove(id);
+                Check.equal(id, table.remove(h).vehicle.getID(), "removed by handle");
+                Check.equal(null, table.byHandle(h), "handle after remove");
+            }
+        }
+        Check.equal(live.size(), table.size(), "size");
+        List<String> order = new ArrayList<>();
+        for (FleetEntry e : table) order.add(e.vehicle.getID());
+        Check.equal(new ArrayList<>(live.keySet()), order, "fleet order");
+        for (Map.Entry<String, Long> e : live.entrySet()){
+            Check.equal(e.getKey(), table.byHandle(e.getValue()).vehicle.getID(), "lookup by handle");
+            Check.equal(e.getKey(), table.get(e.getKey()).vehicle.getID(), "lookup by ID");
+        }
+        for (int i = 0; i < 5_000; i++){
+            String id = "V" + i;
+            Check.equal(live.containsKey(id), table.get(id) != null, "registered " + id);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fleet;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import events.Events;
+import events.SilentEventSink;
+
+//Runs every static void test*() method of the test classes below, in name order, and exits with
+//status 1 if any failed. Pass class names to run only those.
+public final class RunTests{
+
+    private static final Class<?>[] TESTS = {
+        CsvFilesTest.class,
+        CsvDeltaTest.class,
+        SnapshotCodecTest.class,
+        FleetJournalTest.class,
+        ConcurrentFleetManagerTest.class,
+        FleetTableTest.class,
+        FleetRangeIndexTest.class,
+        FleetReachTest.class,
+        FleetExceptionTest.class,
+        AsyncEventSinkTest.class,
+    };
+
+    public static void main(String[] args) throws Exception{
+        Events.setSink(SilentEventSink.INSTANCE);
+        Set<String> only = new HashSet<>(Arrays.asList(args));
+        int run = 0, failed = 0;
+        for (Class<?> c : TESTS){
+            if (!only.isEmpty() && !only.contains(c.getSimpleName())) continue;
+            List<Method> tests = new ArrayList<>();
+            for (Method m : c.getDeclaredMethods()){
+                if (m.getName().startsWith("test") && Modifier.isStatic(m.getModifiers()) && m.getParameterCount() == 0){
+                    tests.add(m);
+                }
+            }
+            tests.sort(Comparator.comparing(Method::getName));
+            for (Method m : tests){
+                run++;
+                m.setAccessible(true);
+                try{
+                    m.invoke(null);
+                    System.out.println("PASS " + c.getSimpleName() + "." + m.getName());
+                }
+                catch (InvocationTargetException e){
+                    failed++;
+                    System.out.println("FAIL " + c.getSimpleName() + "." + m.getName() + ": " + e.getCause());
+                    e.getCause().printStackTrace(System.out);
+                }
+            }
+        }
+        System.out.println(run + " tests, " + failed + " failed");
+        if (failed > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,79 @@
+package fleet;
+
+import java.util.*;
+
+import vehicles.*;
+import interfaces.*;
+
+//Small fleets for the tests: one vehicle of every type, in values that survive the CSV's two
+//decimals exactly.
+final class Samples{
+
+    private Samples(){}
+
+    static List<Vehicle> oneOfEach(String prefix, String model) throws Exception{
+        Car car = new Car(prefix + "C", model, 180.5, 1200.25, 4);
+        car.refuel(40.5);
+        car.boardPassengers(3);
+        car.scheduleMaintenance();
+        Truck truck = new Truck(prefix + "T", model, 110, 50000, 6);
+        truck.refuel(120);
+        truck.loadCargo(2500);
+        Bus bus = new Bus(prefix + "B", model, 95.75, 8000, 6);
+        bus.refuel(80.25);
+        bus.boardPassengers(30);
+        bus.loadCargo(100);
+        Airplane plane = new Airplane(prefix + "A", model, 850, 120000, 11000.5);
+        plane.refuel(5000);
+        plane.boardPassengers(150);
+        plane.loadCargo(3000);
+        CargoShip ship = new CargoShip(prefix + "S", model, 40, 3000, false);
+        ship.refuel(900);
+        ship.loadCargo(20000);
+        return new ArrayList<>(Arrays.asList(car, truck, bus, plane, ship));
+    }
+
+    // the state a CSV keeps: type, id, model, speed, mileage, wheels/altitude/sail and fuel; cargo,
+    // passengers and maintenance are not reloaded, and neither is a car's fuel
+    static List<Vehicle> csvOneOfEach(String prefix, String model) throws Exception{
+        Truck truck = new Truck(prefix + "T", model, 110, 50000, 6);
+        truck.refuel(120);
+        Bus bus = new Bus(prefix + "B", model, 95.75, 8000, 6);
+        bus.refuel(80.25);
+        Airplane plane = new Airplane(prefix + "A", model, 850, 120000, 11000.5);
+        plane.refuel(5000);
+        CargoShip ship = new CargoShip(prefix + "S", model, 40, 3000, false);
+        ship.refuel(900);
+        CargoShip sail = new CargoShip(prefix + "W", model, 25.5, 700, true);
+        return new ArrayList<>(Arrays.asList(new Car(prefix + "C", model, 180.5, 1200.25, 4), truck, bus, plane, ship, sail));
+    }
+
+    static FleetManager fleetOf(List<Vehicle> vehicles) throws Exception{
+        FleetManager fm = new FleetManager();
+        for (Vehicle v : vehicles) fm.addVehicle(v);
+        return fm;
+    }
+
+    // every field a save has to keep, as one comparable line
+    static String describe(Vehicle v){
+        StringBuilder sb = new StringBuilder();
+        sb.append(v.getClass().getSimpleName()).append(' ').append(v.getID()).append(" model=").append(v.getModel())
+          .append(" speed=").append(v.getMaxSpeed()).append(" mileage=").append(v.getCurrentMileage());
+        if (v instanceof Car) sb.append(" wheels=").append(((Car) v).getNumWheels());
+        if (v instanceof Truck) sb.append(" wheels=").append(((Truck) v).getNumWheels());
+        if (v instanceof Bus) sb.append(" wheels=").append(((Bus) v).getNumWheels());
+        if (v instanceof Airplane) sb.append(" altitude=").append(((Airplane) v).getMaxAltitude());
+        if (v instanceof CargoShip) sb.append(" sail=").append(((CargoShip) v).hasSail());
+        if (v instanceof FuelConsumable) sb.append(" fuel=").append(((FuelConsumable) v).getFuelLevel());
+        if (v instanceof CargoCarrier) sb.append(" cargo=").append(((CargoCarrier) v).getCurrentCargo());
+        if (v instanceof PassengerCarrier) sb.append(" pax=").append(((PassengerCarrier) v).getCurrentPassengers());
+        if (v instanceof Maintainable) sb.append(" scheduled=").append(((Maintainable) v).isMaintenanceScheduled());
+        return sb.toString();
+    }
+
+    static List<String> describe(Collection<Vehicle> vehicles){
+        List<String> out = new ArrayList<>();
+        for (Vehicle v : vehicles) out.add(describe(v));
+        return out;
+    }
+}
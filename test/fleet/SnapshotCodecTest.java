@@ -0,0 +1,89 @@
+package fleet;
+
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+
+import vehicles.*;
+
+//Binary snapshots: lossless for every type and every model, null included, and a failed save
+//leaves the previous snapshot as it was.
+final class SnapshotCodecTest{
+
+    static void testEveryTypeRoundTripsExactly() throws Exception{
+        Path dir = Check.tempDir("snap");
+        try{
+            List<Vehicle> vehicles = Samples.oneOfEach("V", "Model X");
+            // values the CSV would round
+            vehicles.get(0).setCurrentMileage(1.0 / 3);
+            vehicles.get(1).setCurrentMileage(Math.PI * 1e5);
+            FleetManager fm = Samples.fleetOf(vehicles);
+            Path file = dir.resolve("fleet.bin");
+            fm.saveSnapshot(file.toString());
+            FleetManager loaded = new FleetManager();
+            loaded.loadSnapshot(file.toString());
+            Check.equal(Samples.describe(fm.getFleetSnapshot()), Samples.describe(loaded.getFleetSnapshot()), "loaded fleet");
+            Check.same(1.0 / 3, loaded.getVehicleById("VC").getCurrentMileage(), "mileage bits");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    static void testNullAndNonAsciiModels() throws Exception{
+        Path dir = Check.tempDir("snap");
+        try{
+            List<Vehicle> vehicles = new ArrayList<>();
+            vehicles.addAll(Samples.oneOfEach("N", null));
+            vehicles.addAll(Samples.oneOfEach("U", "Škoda 日産 €"));
+            vehicles.addAll(Samples.oneOfEach("E", ""));
+            FleetManager fm = Samples.fleetOf(vehicles);
+            Path file = dir.resolve("fleet.bin");
+            fm.saveSnapshot(file.toString());
+            FleetManager loaded = new FleetManager();
+            loaded.loadSnapshot(file.toString());
+            Check.equal(Samples.describe(vehicles), Samples.describe(loaded.getFleetSnapshot()), "loaded fleet");
+            Check.isTrue(loaded.getVehicleById("NC").getModel() == null, "null model comes back as null, not \"null\"");
+            Check.equal(Samples.describe(vehicles), Samples.describe(FleetManager.copyOf(vehicles)), "copyOf");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+
+    static void testStringEncoding(){
+        ByteBuffer buf = ByteBuffer.allocate(1 << 17);
+        String longest = "x".repeat(0xFFFE);
+        FleetSnapshotCodec.putString(buf, null);
+        FleetSnapshotCodec.putString(buf, "");
+        FleetSnapshotCodec.putString(buf, "ü");
+        FleetSnapshotCodec.putString(buf, longest);
+        buf.flip();
+        Check.equal(null, FleetSnapshotCodec.getString(buf), "null");
+        Check.equal("", FleetSnapshotCodec.getString(buf), "empty");
+        Check.equal("ü", FleetSnapshotCodec.getString(buf), "two-byte character");
+        Check.equal(longest, FleetSnapshotCodec.getString(buf), "longest value");
+        Check.equal(0, buf.remaining(), "bytes left");
+        // its length would read back as null
+        Check.fails(IllegalArgumentException.class, () -> FleetSnapshotCodec.putString(ByteBuffer.allocate(1 << 17), longest + "x"));
+    }
+
+    static void testFailedSaveKeepsThePreviousSnapshot() throws Exception{
+        Path dir = Check.tempDir("snap");
+        try{
+            FleetManager fm = Samples.fleetOf(Samples.oneOfEach("V", "Model X"));
+            Path file = dir.resolve("fleet.bin");
+            fm.saveSnapshot(file.toString());
+            byte[] before = Files.readAllBytes(file);
+
+            // an ID too long for the format fails the save halfway through
+            fm.addVehicle(new Car("Z".repeat(70_000), "Model Y", 100, 0, 4));
+            Check.fails(IllegalArgumentException.class, () -> fm.saveSnapshot(file.toString()));
+            Check.isTrue(Arrays.equals(before, Files.readAllBytes(file)), "previous snapshot untouched");
+            Check.isTrue(!Files.exists(dir.resolve("fleet.bin.tmp")), "no temporary file left");
+        }
+        finally{
+            Check.delete(dir);
+        }
+    }
+}